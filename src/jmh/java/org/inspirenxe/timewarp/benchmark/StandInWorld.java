@@ -0,0 +1,72 @@
+/*
+ * This file is part of TimeWarp, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) InspireNXE <http://github.com/InspireNXE/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.inspirenxe.timewarp.benchmark;
+
+import org.inspirenxe.timewarp.daypart.DayPartType;
+import org.inspirenxe.timewarp.engine.TimePacketPolicy;
+import org.inspirenxe.timewarp.engine.WorldClock;
+import org.inspirenxe.timewarp.world.WorldTimeline;
+
+/**
+ * A stand-in for a warped world that drives the same {@link WorldClock} and {@link TimePacketPolicy} as MixinWorldServer without a
+ * live server.
+ */
+final class StandInWorld {
+
+    private static final long RESYNC_INTERVAL = 20L;
+    private static final int PLAYERS = 10;
+
+    private final WorldClock clock;
+    private final TimePacketPolicy timePacketPolicy = new TimePacketPolicy();
+    private long worldTime;
+
+    StandInWorld(WorldTimeline timeline, long worldTime) {
+        this.clock = new WorldClock(timeline);
+        this.worldTime = worldTime;
+    }
+
+    /**
+     * Creates a timeline with stretched, skipped and vanilla length dayparts.
+     * @return The {@link WorldTimeline}.
+     */
+    static WorldTimeline createTimeline() {
+        final long[] lengths = new long[DayPartType.values().length];
+        lengths[DayPartType.MORNING.ordinal()] = DayPartType.MORNING.defaultLength;
+        lengths[DayPartType.DAY.ordinal()] = DayPartType.DAY.defaultLength * 3;
+        lengths[DayPartType.DUSK.ordinal()] = 0;
+        lengths[DayPartType.EVENING.ordinal()] = DayPartType.EVENING.defaultLength * 2;
+        lengths[DayPartType.NIGHT.ordinal()] = DayPartType.NIGHT.defaultLength * 4;
+        return new WorldTimeline(lengths);
+    }
+
+    /**
+     * Ticks the world once.
+     * @return The amount of time packets that would have been sent.
+     */
+    int tick() {
+        worldTime = clock.tick(worldTime);
+        return timePacketPolicy.tick(worldTime, clock.isClientPredictable(), RESYNC_INTERVAL) ? PLAYERS : 0;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * This file is part of TimeWarp, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) InspireNXE <http://github.com/InspireNXE/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.inspirenxe.timewarp.benchmark;
+
+import org.inspirenxe.timewarp.daypart.DayPartType;
+import org.inspirenxe.timewarp.world.WorldTimeline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the lookups made on a {@link WorldTimeline} while a world ticks.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WorldTimelineBenchmark {
+
+    private WorldTimeline timeline;
+    private long time;
+
+    @Setup
+    public void setup() {
+        timeline = StandInWorld.createTimeline();
+    }
+
+    @Benchmark
+    public long getLength() {
+        time = (time + 7) % DayPartType.DEFAULT_DAY_LENGTH;
+        return timeline.getLength(timeline.getType(time));
+    }
+
+    @Benchmark
+    public long getWarpedTime() {
+        time = (time + 7) % DayPartType.DEFAULT_DAY_LENGTH;
+        return timeline.getWarpedTime(time);
+    }
+
+    @Benchmark
+    public long getStartAndEndTime() {
+        time = (time + 7) % DayPartType.DEFAULT_DAY_LENGTH;
+        final DayPartType type = timeline.getType(time);
+        return timeline.getEndTime(type) - timeline.getStartTime(type);
+    }
+}
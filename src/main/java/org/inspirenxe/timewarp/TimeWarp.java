@@ -24,35 +24,66 @@
  */
 package org.inspirenxe.timewarp;
 
+import static org.spongepowered.api.command.args.GenericArguments.choices;
+import static org.spongepowered.api.command.args.GenericArguments.longNum;
 import static org.spongepowered.api.command.args.GenericArguments.optional;
 import static org.spongepowered.api.command.args.GenericArguments.world;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
-import com.google.common.reflect.TypeToken;
 import com.google.inject.Inject;
 import ninja.leaping.configurate.commented.CommentedConfigurationNode;
 import ninja.leaping.configurate.loader.ConfigurationLoader;
-import ninja.leaping.configurate.objectmapping.ObjectMappingException;
 import org.inspirenxe.timewarp.api.IMixinWorldServer;
+import org.inspirenxe.timewarp.api.TimeService;
+import org.inspirenxe.timewarp.config.CalendarSettings;
+import org.inspirenxe.timewarp.config.GroupSettings;
+import org.inspirenxe.timewarp.config.RealTimeSettings;
+import org.inspirenxe.timewarp.config.SyncSettings;
+import org.inspirenxe.timewarp.config.WorldSettings;
 import org.inspirenxe.timewarp.daypart.DayPartType;
+import org.inspirenxe.timewarp.engine.RealTimeClock;
+import org.inspirenxe.timewarp.engine.WarpUnit;
+import org.inspirenxe.timewarp.engine.WorldMetrics;
 import org.inspirenxe.timewarp.util.Commands;
+import org.inspirenxe.timewarp.util.ConfigWatcher;
 import org.inspirenxe.timewarp.util.Storage;
+import org.inspirenxe.timewarp.util.WarpStateStorage;
+import org.inspirenxe.timewarp.world.ScheduleGroup;
+import org.inspirenxe.timewarp.world.ScheduleSnapshot;
+import org.inspirenxe.timewarp.world.SleepTracker;
+import org.inspirenxe.timewarp.world.WorldCalendar;
 import org.inspirenxe.timewarp.world.WorldDay;
+import org.inspirenxe.timewarp.world.WorldTimeService;
 import org.slf4j.Logger;
+import org.slf4j.helpers.NOPLogger;
 import org.spongepowered.api.Sponge;
 import org.spongepowered.api.command.CommandException;
 import org.spongepowered.api.command.CommandResult;
 import org.spongepowered.api.command.spec.CommandSpec;
 import org.spongepowered.api.config.DefaultConfig;
+import org.spongepowered.api.data.key.Keys;
 import org.spongepowered.api.entity.living.player.Player;
+import org.spongepowered.api.entity.living.player.gamemode.GameModes;
 import org.spongepowered.api.event.Listener;
+import org.spongepowered.api.event.Order;
 import org.spongepowered.api.event.action.SleepingEvent;
+import org.spongepowered.api.event.entity.MoveEntityEvent;
+import org.spongepowered.api.event.entity.living.humanoid.ChangeGameModeEvent;
+import org.spongepowered.api.event.entity.living.humanoid.player.RespawnPlayerEvent;
 import org.spongepowered.api.event.game.GameReloadEvent;
 import org.spongepowered.api.event.game.state.GameConstructionEvent;
 import org.spongepowered.api.event.game.state.GameInitializationEvent;
 import org.spongepowered.api.event.game.state.GameStartedServerEvent;
+import org.spongepowered.api.event.game.state.GameStoppingServerEvent;
+import org.spongepowered.api.event.network.ClientConnectionEvent;
+import org.spongepowered.api.event.world.LoadWorldEvent;
+import org.spongepowered.api.event.world.SaveWorldEvent;
+import org.spongepowered.api.event.world.UnloadWorldEvent;
 import org.spongepowered.api.plugin.Plugin;
 import org.spongepowered.api.plugin.PluginContainer;
+import org.spongepowered.api.scheduler.Task;
 import org.spongepowered.api.text.Text;
 import org.spongepowered.api.text.format.TextColors;
 import org.spongepowered.api.world.DimensionType;
@@ -61,13 +92,20 @@ import org.spongepowered.api.world.storage.WorldProperties;
 
 import java.io.File;
 import java.util.Collections;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Plugin(id = "timewarp", name = "TimeWarp", description = "Manipulate time itself and extend the time of day!")
 public class TimeWarp {
 
-    private static final Set<DimensionType> SUPPORTED_DIMENSION_TYPES = Sets.newHashSet();
+    private static final AtomicReference<ScheduleSnapshot> SNAPSHOT = new AtomicReference<>(ScheduleSnapshot.EMPTY);
+    // The ticks vanilla Minecraft lets players lie in bed before the night is skipped
+    private static final long SLEEP_TICKS = 100L;
     public static TimeWarp instance;
     public Storage storage;
     @Inject public Logger logger;
@@ -76,26 +114,51 @@ public class TimeWarp {
     @Inject private File configuration;
     @DefaultConfig(sharedRoot = true)
     @Inject private ConfigurationLoader<CommentedConfigurationNode> loader;
+    private ConfigWatcher configWatcher;
+    private final WorldTimeService timeService = new WorldTimeService();
+    private final SleepTracker sleepTracker = new SleepTracker();
+    private WarpStateStorage warpStateStorage;
+    private ExecutorService asyncExecutor;
+    private ExecutorService syncExecutor;
 
     @Listener
     public void onGameConstructionEvent(GameConstructionEvent event) {
         instance = this;
         storage = new Storage(container, configuration, loader);
-        storage.registerDefaultNode("sync.settings.dimensions", Collections.singletonList("overworld"));
+        warpStateStorage = new WarpStateStorage(container);
+        // Nothing is saved until the batch ends, which it has to or every later save would be held back
+        storage.beginBatch();
+        try {
+            storage.registerDefaultNode("sync.settings.dimensions", Collections.singletonList("overworld"));
+            storage.registerDefaultNode("sync.settings.time-packets.resync-interval", 20L);
+            storage.registerDefaultNode("sync.settings.time-packets.fast-forward-interval", 2L);
+            storage.registerDefaultNode("sync.settings.storage.async-save", true);
+            storage.registerDefaultNode("sync.settings.storage.watch", false);
+            storage.registerDefaultNode("sync.settings.metrics.enabled", false);
+            storage.registerDefaultNode("sync.settings.lag-compensation.enabled", false);
+            storage.registerDefaultNode("sync.settings.lag-compensation.max-catch-up-ticks", 100L);
+        } finally {
+            storage.endBatch();
+        }
+        configWatcher = new ConfigWatcher(container, configuration, () -> {
+            if (storage.isModifiedOnDisk()) {
+                logger.info("Configuration changed on disk, reloading TimeWarp.");
+                syncExecutor.execute(this::reload);
+            }
+        });
     }
 
     @Listener
-    public void onGameStartedServerEvent(GameStartedServerEvent event) throws ObjectMappingException {
-        for (String type : storage.getChildNode("sync.settings.dimensions").getList(TypeToken.of(String.class))) {
-            Optional<DimensionType> optType = Sponge.getRegistry().getType(DimensionType.class, type.toLowerCase());
-            optType.ifPresent(SUPPORTED_DIMENSION_TYPES::add);
-        }
-
-        this.createWorldDays();
+    public void onGameStartedServerEvent(GameStartedServerEvent event) {
+        this.onSnapshotPublished(this.createSnapshot(this.getLoadedWorlds(), this.getDimensionTypes()));
     }
 
     @Listener
     public void onGameInitializationEvent(GameInitializationEvent event) {
+        asyncExecutor = Sponge.getScheduler().createAsyncExecutor(this);
+        syncExecutor = Sponge.getScheduler().createSyncExecutor(this);
+        Sponge.getServiceManager().setProvider(this, TimeService.class, timeService);
+
         Commands.add(CommandSpec.builder()
                 .permission("timewarp.command.daypart")
                 .arguments(optional(world(Text.of("world"))))
@@ -120,15 +183,126 @@ public class TimeWarp {
                     return CommandResult.success();
                 })
                 .build(), "daypart");
+        Commands.add(CommandSpec.builder()
+                .permission("timewarp.command.packets")
+                .arguments(optional(world(Text.of("world"))))
+                .description(Text.of("Gets the time update packets sent and skipped for a world."))
+                .executor((src, args) -> {
+                    Optional<WorldProperties> optWorld = args.getOne("world");
+                    if (!optWorld.isPresent() && src instanceof Player) {
+                        optWorld = Optional.of(((Player) src).getWorld().getProperties());
+                    } else if (!optWorld.isPresent()) {
+                        throw new CommandException(Text.of("A world must be provided if command sender is not a player."));
+                    }
+
+                    final Optional<World> optLoadedWorld = Sponge.getServer().getWorld(optWorld.get().getWorldName());
+                    if (!optLoadedWorld.isPresent()) {
+                        throw new CommandException(Text.of("World [", TextColors.GRAY, optWorld.get().getWorldName(), TextColors.RED, "] is not loaded."));
+                    }
+
+                    final IMixinWorldServer mixinWorld = (IMixinWorldServer) optLoadedWorld.get();
+                    src.sendMessage(Text.of("Time packets for [", TextColors.GRAY, optWorld.get().getWorldName(), TextColors.RESET, "] sent [",
+                            TextColors.GREEN, mixinWorld.getTimePacketsSent(), TextColors.RESET, "] skipped [", TextColors.GRAY,
+                            mixinWorld.getTimePacketsSkipped(), TextColors.RESET, "]"));
+                    return CommandResult.success();
+                })
+                .build(), "packets");
+        Commands.add(CommandSpec.builder()
+                .permission("timewarp.command.stats")
+                .arguments(optional(world(Text.of("world"))))
+                .description(Text.of("Gets the time warp metrics for a world."))
+                .executor((src, args) -> {
+                    Optional<WorldProperties> optWorld = args.getOne("world");
+                    if (!optWorld.isPresent() && src instanceof Player) {
+                        optWorld = Optional.of(((Player) src).getWorld().getProperties());
+                    } else if (!optWorld.isPresent()) {
+                        throw new CommandException(Text.of("A world must be provided if command sender is not a player."));
+                    }
+
+                    final Optional<World> optLoadedWorld = Sponge.getServer().getWorld(optWorld.get().getWorldName());
+                    if (!optLoadedWorld.isPresent()) {
+                        throw new CommandException(Text.of("World [", TextColors.GRAY, optWorld.get().getWorldName(), TextColors.RED, "] is not loaded."));
+                    }
+
+                    final WorldMetrics.Snapshot metrics = ((IMixinWorldServer) optLoadedWorld.get()).getMetrics();
+                    if (!metrics.enabled && metrics.ticks == 0) {
+                        throw new CommandException(Text.of("Metrics are disabled, set [", TextColors.GRAY, "sync.settings.metrics.enabled",
+                                TextColors.RED, "] to true and reload TimeWarp."));
+                    }
+
+                    src.sendMessage(Text.of("Metrics for [", TextColors.GRAY, optWorld.get().getWorldName(), TextColors.RESET, "]",
+                            metrics.enabled ? "" : " (disabled)"));
+                    src.sendMessage(Text.of("Ticks [", TextColors.GRAY, metrics.ticks, TextColors.RESET, "] average [", TextColors.GRAY,
+                            metrics.getAverageNanos(), "ns", TextColors.RESET, "] max [", TextColors.GRAY, metrics.maxNanos, "ns",
+                            TextColors.RESET, "]"));
+                    src.sendMessage(Text.of("Cache rebuilds [", TextColors.GRAY, metrics.cacheRebuilds, TextColors.RESET,
+                            "] DayPart transitions [", TextColors.GRAY, metrics.dayPartTransitions, TextColors.RESET, "] skipped DayParts [",
+                            TextColors.GRAY, metrics.skippedDayParts, TextColors.RESET, "]"));
+                    src.sendMessage(Text.of("Time packets sent [", TextColors.GREEN, metrics.timePacketsSent, TextColors.RESET, "]"));
+                    return CommandResult.success();
+                })
+                .build(), "stats");
+        final Map<String, WarpUnit> units = Maps.newHashMap();
+        for (WarpUnit unit : WarpUnit.values()) {
+            units.put(unit.name.toLowerCase(), unit);
+        }
+        Commands.add(CommandSpec.builder()
+                .permission("timewarp.command.skip")
+                .arguments(longNum(Text.of("amount")), choices(Text.of("unit"), units), optional(world(Text.of("world"))))
+                .description(Text.of("Skips a world forward, or back if negative, by an amount of warped ticks, DayParts or days."))
+                .executor((src, args) -> {
+                    Optional<WorldProperties> optWorld = args.getOne("world");
+                    if (!optWorld.isPresent() && src instanceof Player) {
+                        optWorld = Optional.of(((Player) src).getWorld().getProperties());
+                    } else if (!optWorld.isPresent()) {
+                        throw new CommandException(Text.of("A world must be provided if command sender is not a player."));
+                    }
+
+                    final Optional<World> optLoadedWorld = Sponge.getServer().getWorld(optWorld.get().getWorldName());
+                    if (!optLoadedWorld.isPresent()) {
+                        throw new CommandException(Text.of("World [", TextColors.GRAY, optWorld.get().getWorldName(), TextColors.RED, "] is not loaded."));
+                    }
+
+                    final long amount = args.<Long>getOne("amount").get();
+                    final WarpUnit unit = args.<WarpUnit>getOne("unit").get();
+                    final IMixinWorldServer mixinWorld = (IMixinWorldServer) optLoadedWorld.get();
+                    final long worldTime;
+                    try {
+                        switch (unit) {
+                            case TICKS:
+                                worldTime = mixinWorld.skipWarpedTicks(amount);
+                                break;
+                            case DAYPARTS:
+                                worldTime = mixinWorld.skipDayParts(amount);
+                                break;
+                            default:
+                                worldTime = mixinWorld.skipDays(amount);
+                        }
+                    } catch (IllegalStateException e) {
+                        throw new CommandException(Text.of("Unable to skip time in [", TextColors.GRAY, optWorld.get().getWorldName(), TextColors.RED,
+                                "] as it follows the real clock."));
+                    }
+
+                    src.sendMessage(Text.of("Skipped [", TextColors.GRAY, optWorld.get().getWorldName(), TextColors.RESET, "] by [",
+                            TextColors.GRAY, amount, " ", unit.name, TextColors.RESET, "] to time [", TextColors.GRAY, worldTime,
+                            TextColors.RESET, "]"));
+                    return CommandResult.success();
+                })
+                .build(), "skip");
         Commands.add(CommandSpec.builder()
                 .permission("timewarp.command.reload")
                 .description(Text.of("Reloads the configuration settings from disk."))
                 .executor((src, args) -> {
-                    this.createWorldDays();
-                    src.sendMessage(Text.of("TimeWarp reloaded."));
-                    if (src instanceof Player) {
-                        logger.info("TimeWarp reloaded by " + src.getName());
-                    }
+                    this.reload().whenCompleteAsync((snapshot, throwable) -> {
+                        if (throwable != null) {
+                            src.sendMessage(Text.of(TextColors.RED, "Unable to reload TimeWarp, see the console for details."));
+                            return;
+                        }
+                        src.sendMessage(Text.of("TimeWarp reloaded."));
+                        if (src instanceof Player) {
+                            logger.info("TimeWarp reloaded by " + src.getName());
+                        }
+                    }, syncExecutor);
                     return CommandResult.success();
                 })
                 .build(), "reload");
@@ -136,57 +310,407 @@ public class TimeWarp {
         Commands.register(container, container.getId(), "tw");
     }
 
+    @Listener
+    public void onGameStoppingServerEvent(GameStoppingServerEvent event) {
+        configWatcher.stop();
+        storage.flush();
+        for (World world : Sponge.getServer().getWorlds()) {
+            this.saveWarpState(world);
+        }
+        warpStateStorage.flush();
+    }
+
+    @Listener
+    public void onLoadWorldEvent(LoadWorldEvent event) {
+        final World world = event.getTargetWorld();
+        timeService.addWorld(world);
+        warpStateStorage.load(world.getDirectory().resolve(WarpStateStorage.FILE_NAME))
+                .ifPresent(((IMixinWorldServer) world)::restoreWarpState);
+    }
+
+    @Listener
+    public void onSaveWorldEvent(SaveWorldEvent.Post event) {
+        this.saveWarpState(event.getTargetWorld());
+    }
+
+    @Listener
+    public void onUnloadWorldEvent(UnloadWorldEvent event) {
+        timeService.removeWorld(event.getTargetWorld());
+        sleepTracker.removeWorld(event.getTargetWorld().getUniqueId());
+        this.saveWarpState(event.getTargetWorld());
+    }
+
+    /**
+     * Captures the warp state of a world on the main thread and hands it to the background writer, so saving never waits on disk.
+     * @param world The {@link World}.
+     */
+    private void saveWarpState(World world) {
+        ((IMixinWorldServer) world).captureWarpState()
+                .ifPresent(state -> warpStateStorage.save(world.getDirectory().resolve(WarpStateStorage.FILE_NAME), state));
+    }
+
     @Listener
     public void onGameReloadEvent(GameReloadEvent event) {
-        this.createWorldDays();
+        this.reload();
+    }
+
+    @Listener(order = Order.POST)
+    public void onSleepingPreEvent(SleepingEvent.Pre event) {
+        if (!(event.getTargetEntity() instanceof Player)) {
+            return;
+        }
+        final Player player = (Player) event.getTargetEntity();
+        // Lying down can still fail after this event, only count the player once they are in bed
+        syncExecutor.execute(() -> {
+            if (player.isOnline() && player.get(Keys.IS_SLEEPING).orElse(false)) {
+                sleepTracker.startSleeping(player.getWorld().getUniqueId(), player.getUniqueId());
+                // Plugins may toggle ignoring sleep without an event, look it up again whenever someone lies down
+                this.updateIgnored(player, player.getWorld());
+                this.checkSleeping(player.getWorld());
+            }
+        });
     }
 
     @Listener
     public void onSleepingFinishPostEvent(SleepingEvent.Finish.Post event) {
-        event.getBed().getLocation().ifPresent(location -> {
-            final Optional<WorldDay> optWorldDay = ((IMixinWorldServer) location.getExtent()).getCachedWorldDay();
-            optWorldDay.ifPresent(worldDay -> location.getExtent().getProperties().setWorldTime(
-                    (worldDay.getDaysPassed() * DayPartType.DEFAULT_DAY_LENGTH) + worldDay.getWakeAtDayPart().defaultStartTime + 1));
+        if (event.getTargetEntity() instanceof Player) {
+            sleepTracker.stopSleeping(event.getTargetEntity().getWorld().getUniqueId(), event.getTargetEntity().getUniqueId());
+        }
+    }
+
+    @Listener
+    public void onClientConnectionJoinEvent(ClientConnectionEvent.Join event) {
+        final Player player = event.getTargetEntity();
+        sleepTracker.addPlayer(player.getWorld().getUniqueId(), player.getUniqueId());
+        this.updateIgnored(player, player.getWorld());
+    }
+
+    @Listener
+    public void onClientConnectionDisconnectEvent(ClientConnectionEvent.Disconnect event) {
+        final World world = event.getTargetEntity().getWorld();
+        sleepTracker.removePlayer(world.getUniqueId(), event.getTargetEntity().getUniqueId());
+        // Fewer players may be enough now
+        this.checkSleeping(world);
+    }
+
+    @Listener(order = Order.POST)
+    public void onChangeGameModeEvent(ChangeGameModeEvent.TargetPlayer event) {
+        final Player player = event.getTargetEntity();
+        // The game mode only applies after this event, spectators leave or join the sleep counts on the next tick
+        syncExecutor.execute(() -> {
+            if (player.isOnline()) {
+                this.updateIgnored(player, player.getWorld());
+                this.checkSleeping(player.getWorld());
+            }
         });
     }
 
-    private void createWorldDays() {
-        // Initialize the configuration
-        storage.init();
+    @Listener(order = Order.POST)
+    public void onMoveEntityTeleportEvent(MoveEntityEvent.Teleport event) {
+        if (event.getTargetEntity() instanceof Player) {
+            this.onChangeWorld((Player) event.getTargetEntity(), event.getFromTransform().getExtent(), event.getToTransform().getExtent());
+        }
+    }
+
+    @Listener
+    public void onRespawnPlayerEvent(RespawnPlayerEvent event) {
+        this.onChangeWorld(event.getTargetEntity(), event.getFromTransform().getExtent(), event.getToTransform().getExtent());
+    }
+
+    /**
+     * Moves a player between the sleep counts of two worlds.
+     * @param player The {@link Player}.
+     * @param from The {@link World} the player leaves.
+     * @param to The {@link World} the player enters.
+     */
+    private void onChangeWorld(Player player, World from, World to) {
+        if (from.getUniqueId().equals(to.getUniqueId())) {
+            return;
+        }
+        sleepTracker.removePlayer(from.getUniqueId(), player.getUniqueId());
+        sleepTracker.addPlayer(to.getUniqueId(), player.getUniqueId());
+        this.updateIgnored(player, to);
+        this.checkSleeping(from);
+    }
+
+    /**
+     * Leaves spectators and players ignoring sleep out of the sleep counts of a world, as vanilla Minecraft does.
+     * @param player The {@link Player}.
+     * @param world The {@link World} the player is counted in.
+     */
+    private void updateIgnored(Player player, World world) {
+        sleepTracker.setIgnored(world.getUniqueId(), player.getUniqueId(), player.isSleepingIgnored()
+                || GameModes.SPECTATOR.equals(player.get(Keys.GAME_MODE).orElse(null)));
+    }
+
+    /**
+     * Skips the night in a warped world once enough players sleep there, see {@link WorldSettings#sleepPercentage}. The night is
+     * skipped through the clock of the world, at once or fast forwarded over {@link WorldSettings#sleepFastForwardTicks}, so its caches
+     * and increment counters stay in step.
+     * @param world The {@link World}.
+     */
+    private void checkSleeping(World world) {
+        final IMixinWorldServer mixinWorld = (IMixinWorldServer) world;
+        final UUID worldUniqueId = world.getUniqueId();
+        // Time in worlds following real time can not be skipped, worlds that are not warped sleep as vanilla Minecraft does
+        final Optional<WorldDay> optWorldDay = mixinWorld.getCachedWorldDay().filter(worldDay -> !worldDay.getRealTimeClock().isPresent());
+        if (!optWorldDay.isPresent()) {
+            return;
+        }
+        if (!sleepTracker.isThresholdMet(worldUniqueId, optWorldDay.get().getSettings().sleepPercentage)
+                || !sleepTracker.markWakePending(worldUniqueId)) {
+            return;
+        }
+        // Falling asleep takes server ticks as in vanilla Minecraft, however stretched the night is or whether time moves at all
+        Task.builder().delayTicks(SLEEP_TICKS).execute(() -> {
+            if (!world.isLoaded()) {
+                return;
+            }
+            // Players may have woken up or left while falling asleep, and the configuration may have been reloaded
+            final Optional<WorldDay> optCurrentWorldDay = mixinWorld.getCachedWorldDay()
+                    .filter(worldDay -> !worldDay.getRealTimeClock().isPresent())
+                    .filter(worldDay -> sleepTracker.isThresholdMet(worldUniqueId, worldDay.getSettings().sleepPercentage));
+            if (!optCurrentWorldDay.isPresent()) {
+                sleepTracker.clearWakePending(worldUniqueId);
+                return;
+            }
+            final Runnable wake = () -> {
+                sleepTracker.clearWakePending(worldUniqueId);
+                mixinWorld.wakeSleepingPlayers();
+            };
+            // Vanilla Minecraft wakes players without changing the time while the daylight cycle is off
+            if (!isDaylightCycle(world)) {
+                wake.run();
+                return;
+            }
+            final WorldDay worldDay = optCurrentWorldDay.get();
+            mixinWorld.fastForwardToDayPart(worldDay.getWakeAtDayPart(), worldDay.getSettings().sleepFastForwardTicks);
+            if (!mixinWorld.isFastForwarding()) {
+                wake.run();
+                return;
+            }
+            // Players stay in bed while the sky moves through the night and wake up once the fast forward ends, which stays pending so
+            // sleeping again meanwhile does not skip another night. A fast forward ended early or stalled by the daylight cycle turning
+            // off wakes them as well.
+            Task.builder().intervalTicks(1L).execute(task -> {
+                if (!world.isLoaded()) {
+                    task.cancel();
+                } else if (!mixinWorld.isFastForwarding() || !isDaylightCycle(world)) {
+                    task.cancel();
+                    wake.run();
+                }
+            }).submit(this);
+        }).submit(this);
+    }
+
+    /**
+     * Gets whether time moves in a world, as set by the doDaylightCycle game rule.
+     * @param world The {@link World}.
+     * @return True if the daylight cycle is on, false if not.
+     */
+    private static boolean isDaylightCycle(World world) {
+        return Boolean.valueOf(world.getProperties().getGameRule("doDaylightCycle").orElse("false"));
+    }
 
+    /**
+     * Reloads the configuration off the main thread. Worlds pick up the new {@link ScheduleSnapshot} on their next tick.
+     * @return A future completed with the published {@link ScheduleSnapshot}, off the main thread if the reload failed.
+     */
+    private CompletableFuture<ScheduleSnapshot> reload() {
+        final Map<String, DimensionType> loadedWorlds = this.getLoadedWorlds();
+        final Map<String, DimensionType> dimensionTypesById = this.getDimensionTypes();
+        return CompletableFuture.supplyAsync(() -> this.createSnapshot(loadedWorlds, dimensionTypesById), asyncExecutor)
+                .whenComplete((snapshot, throwable) -> {
+                    if (throwable != null) {
+                        logger.error("Unable to reload TimeWarp!", throwable);
+                    }
+                })
+                .thenApplyAsync(this::onSnapshotPublished, syncExecutor);
+    }
+
+    /**
+     * Gets the {@link DimensionType} of every loaded world. Must be called on the main thread.
+     * @return An immutable map of world names to {@link DimensionType}s.
+     */
+    private Map<String, DimensionType> getLoadedWorlds() {
+        final ImmutableMap.Builder<String, DimensionType> builder = ImmutableMap.builder();
         for (World world : Sponge.getServer().getWorlds()) {
-            if (!TimeWarp.getSupportedDimensionTypes().contains(world.getDimension().getType())) {
-                continue;
+            builder.put(world.getName(), world.getDimension().getType());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Gets every registered {@link DimensionType} keyed by lower case id. Vanilla Minecraft types are also keyed without their
+     * "minecraft:" prefix, as the registry resolves them. Must be called on the main thread.
+     * @return An immutable map of ids to {@link DimensionType}s.
+     */
+    private Map<String, DimensionType> getDimensionTypes() {
+        final Map<String, DimensionType> dimensionTypes = Maps.newHashMap();
+        for (DimensionType type : Sponge.getRegistry().getAllOf(DimensionType.class)) {
+            final String id = type.getId().toLowerCase();
+            dimensionTypes.put(id, type);
+            if (id.startsWith("minecraft:")) {
+                dimensionTypes.putIfAbsent(id.substring("minecraft:".length()), type);
             }
+        }
+        return ImmutableMap.copyOf(dimensionTypes);
+    }
 
-            if (!Boolean.valueOf(world.getProperties().getGameRule("doDaylightCycle").orElse("false"))) {
-                logger.warn("Unable to warp time for [" + world.getName() + "]. Please enable the daylight cycle (/gamerule doDaylightCycle true) " +
-                        "and reload TimeWarp. If this is intentional then please ignore this message.");
+    /**
+     * Loads the configuration, registers defaults for loaded worlds and publishes a new {@link ScheduleSnapshot}. Safe to call off the
+     * main thread as it only reads the configuration and the worlds and dimension types passed in.
+     * @param loadedWorlds The loaded worlds to register defaults for.
+     * @param dimensionTypesById Every registered {@link DimensionType} keyed by lower case id, see {@link TimeWarp#getDimensionTypes()}.
+     * @return The published {@link ScheduleSnapshot}.
+     */
+    private ScheduleSnapshot createSnapshot(Map<String, DimensionType> loadedWorlds, Map<String, DimensionType> dimensionTypesById) {
+        synchronized (storage) {
+            // Initialize the configuration, defaults are merged in memory and written once at the end
+            SyncSettings settings;
+            final Set<DimensionType> dimensionTypes = Sets.newHashSet();
+            storage.beginBatch();
+            try {
+                storage.init();
+
+                settings = SyncSettings.of(storage.getChildNode("sync"), NOPLogger.NOP_LOGGER);
+                for (String type : settings.getDimensions()) {
+                    final DimensionType dimensionType = dimensionTypesById.get(type.toLowerCase());
+                    if (dimensionType != null) {
+                        dimensionTypes.add(dimensionType);
+                    }
+                }
+
+                for (Map.Entry<String, DimensionType> entry : loadedWorlds.entrySet()) {
+                    if (dimensionTypes.contains(entry.getValue())) {
+                        final String worldRootPath = "sync.worlds." + entry.getKey().toLowerCase();
+                        storage.registerDefaultNode(worldRootPath + ".enabled", false);
+                        storage.registerDefaultNode(worldRootPath + ".real-time.enabled", false);
+                        storage.registerDefaultNode(worldRootPath + ".real-time.zone", "UTC");
+                        storage.registerDefaultNode(worldRootPath + ".real-time.sunrise", "06:00");
+                        storage.registerDefaultNode(worldRootPath + ".real-time.sunset", "18:00");
+                        storage.registerDefaultNode(worldRootPath + ".sleep-percentage", 100);
+                        storage.registerDefaultNode(worldRootPath + ".sleep-fast-forward-ticks", 0L);
+
+                        // Worlds in a group take their schedule from the group, there is nothing to default for them
+                        if (storage.getChildNode(worldRootPath + ".group").getString("").isEmpty()) {
+                            storage.registerDefaultNode(worldRootPath + ".wake-at-daypart", DayPartType.DAY.name.toUpperCase());
+
+                            for (DayPartType type : DayPartType.values()) {
+                                storage.registerDefaultNode(worldRootPath + ".dayparts." + type.name.toLowerCase(), type.defaultLength);
+                            }
+                        }
+                    }
+                }
+
+                // Map the final configuration, this time reporting any invalid values
+                settings = SyncSettings.of(storage.getChildNode("sync"), logger);
+                storage.setAsync(settings.isAsyncSave());
+            } finally {
+                storage.endBatch();
+            }
+
+            // Only compile calendars that changed, every world and group following a calendar shares the compiled one
+            final ScheduleSnapshot previous = SNAPSHOT.get();
+            final Map<String, WorldCalendar> calendars = Maps.newHashMap();
+            for (CalendarSettings calendarSettings : settings.getCalendars().values()) {
+                final WorldCalendar previousCalendar = previous.getCalendars().get(calendarSettings.name);
+                if (previousCalendar != null && previousCalendar.getSettings().equals(calendarSettings)) {
+                    calendars.put(calendarSettings.name, previousCalendar);
+                } else {
+                    calendars.put(calendarSettings.name, new WorldCalendar(calendarSettings));
+                }
             }
 
-            ((IMixinWorldServer) world).setTicksUntilNextIncrement(0L);
-            ((IMixinWorldServer) world).clearCache();
+            // Reuse every group whose settings and calendar did not change so shared clocks keep running
+            final Map<String, ScheduleGroup> groups = Maps.newHashMap();
+            for (GroupSettings groupSettings : settings.getGroups().values()) {
+                final WorldCalendar calendar = groupSettings.getCalendar().map(calendars::get).orElse(null);
+                final ScheduleGroup previousGroup = previous.getGroups().get(groupSettings.name);
+                if (previousGroup != null && previousGroup.getSettings().equals(groupSettings)
+                        && previousGroup.getCalendar().orElse(null) == calendar) {
+                    groups.put(groupSettings.name, previousGroup);
+                } else {
+                    groups.put(groupSettings.name, new ScheduleGroup(groupSettings, calendar));
+                }
+            }
 
-            final WorldProperties worldProperties = world.getProperties();
-            if (TimeWarp.getSupportedDimensionTypes().contains(worldProperties.getDimensionType())) {
-                final String worldRootPath = "sync.worlds." + world.getName().toLowerCase();
-                TimeWarp.instance.storage.registerDefaultNode(worldRootPath + ".enabled", false);
-                TimeWarp.instance.storage.registerDefaultNode(worldRootPath + ".wake-at-daypart", DayPartType.DAY.name.toUpperCase());
+            // Worlds following the same real time share one clock so the time zone conversion runs once per second for all of them
+            final Map<RealTimeSettings, RealTimeClock> realTimeClocks = Maps.newHashMap();
+            for (WorldDay worldDay : previous.getWorldDays().values()) {
+                worldDay.getRealTimeClock().ifPresent(clock -> realTimeClocks.put(clock.getSettings(), clock));
+            }
 
-                for (DayPartType type : DayPartType.values()) {
-                    TimeWarp.instance.storage.registerDefaultNode(worldRootPath + ".dayparts." + type.name.toLowerCase(), type.defaultLength);
+            // Reuse the WorldDay of every world whose settings and group did not change so those worlds keep their caches
+            final Map<String, WorldDay> worldDays = Maps.newHashMap();
+            final Set<String> changedWorlds = Sets.newTreeSet();
+            for (WorldSettings worldSettings : settings.getWorlds().values()) {
+                if (worldSettings.enabled) {
+                    final ScheduleGroup group = worldSettings.getGroup().map(groups::get).orElse(null);
+                    final WorldCalendar calendar = worldSettings.getCalendar().map(calendars::get).orElse(null);
+                    final WorldDay previousWorldDay = previous.getWorldDays().get(worldSettings.worldName);
+                    if (previousWorldDay != null && previousWorldDay.getSettings().equals(worldSettings)
+                            && previousWorldDay.getGroup().orElse(null) == group
+                            && previousWorldDay.getCalendar().orElse(null) == calendar) {
+                        worldDays.put(worldSettings.worldName, previousWorldDay);
+                    } else {
+                        final RealTimeClock realTimeClock = worldSettings.getRealTime()
+                                .map(realTime -> realTimeClocks.computeIfAbsent(realTime, RealTimeClock::new))
+                                .orElse(null);
+                        worldDays.put(worldSettings.worldName, new WorldDay(worldSettings, group, realTimeClock, calendar).init());
+                        changedWorlds.add(worldSettings.worldName);
+                    }
+                }
+            }
+            for (String worldName : previous.getWorldDays().keySet()) {
+                if (!worldDays.containsKey(worldName)) {
+                    changedWorlds.add(worldName);
                 }
             }
+            if (previous != ScheduleSnapshot.EMPTY && !changedWorlds.isEmpty()) {
+                logger.info("Schedules changed for worlds " + changedWorlds);
+            }
+
+            final ScheduleSnapshot snapshot = new ScheduleSnapshot(previous.generation + 1, settings, dimensionTypes, calendars,
+                    groups, worldDays);
+            SNAPSHOT.set(snapshot);
+            return snapshot;
         }
+    }
 
-        TimeWarp.instance.storage.save();
+    /**
+     * Applies settings that are not picked up by worlds on their own and warns about warped worlds that have the daylight cycle
+     * disabled. Must be called on the main thread.
+     * @param snapshot The {@link ScheduleSnapshot} that was published.
+     * @return The {@link ScheduleSnapshot} for chaining.
+     */
+    private ScheduleSnapshot onSnapshotPublished(ScheduleSnapshot snapshot) {
+        if (snapshot.getSettings().isWatch()) {
+            configWatcher.start();
+        } else {
+            configWatcher.stop();
+        }
+
+        for (World world : Sponge.getServer().getWorlds()) {
+            // Resolve every loaded world now rather than on its next tick
+            ((IMixinWorldServer) world).refreshSnapshot();
+            if (!snapshot.getDimensionTypes().contains(world.getDimension().getType()) || !snapshot.getWorldDay(world.getName()).isPresent()) {
+                continue;
+            }
+
+            if (!isDaylightCycle(world)) {
+                logger.warn("Unable to warp time for [" + world.getName() + "]. Please enable the daylight cycle (/gamerule doDaylightCycle true) " +
+                        "and reload TimeWarp. If this is intentional then please ignore this message.");
+            }
+        }
+        return snapshot;
     }
 
     /**
-     * Gets the supported {@link DimensionType}s.
-     * @return An unmodifiable set of allowed {@link DimensionType}.
+     * Gets the current {@link ScheduleSnapshot}.
+     * @return The current {@link ScheduleSnapshot}.
      */
-    public static Set<DimensionType> getSupportedDimensionTypes() {
-        return Collections.unmodifiableSet(SUPPORTED_DIMENSION_TYPES);
+    public static ScheduleSnapshot getSnapshot() {
+        return SNAPSHOT.get();
     }
 }
@@ -26,6 +26,9 @@ package org.inspirenxe.timewarp.api;
 
 import org.inspirenxe.timewarp.daypart.DayPart;
 import org.inspirenxe.timewarp.daypart.DayPartType;
+import org.inspirenxe.timewarp.engine.WarpScheduler;
+import org.inspirenxe.timewarp.engine.WarpState;
+import org.inspirenxe.timewarp.engine.WorldMetrics;
 import org.inspirenxe.timewarp.world.WorldDay;
 
 import java.util.Optional;
@@ -44,6 +47,115 @@ public interface IMixinWorldServer {
      */
     void setTicksUntilNextIncrement(long ticksUntilNextIncrement);
 
+    /**
+     * Jumps the world time by an amount of warped ticks, landing exactly where the world would be after that many server ticks
+     * @param ticks The warped ticks to jump by, below zero to rewind
+     * @return The new world time
+     * @throws IllegalStateException If the world follows the real clock
+     */
+    long skipWarpedTicks(long ticks);
+
+    /**
+     * Jumps the world time to the start of a daypart an amount of dayparts away, skipped dayparts are not counted
+     * @param dayParts The dayparts to jump by, below zero to rewind and zero to restart the current daypart
+     * @return The new world time
+     * @throws IllegalStateException If the world follows the real clock
+     */
+    long skipDayParts(long dayParts);
+
+    /**
+     * Jumps the world time by an amount of days, keeping the time of day
+     * @param days The days to jump by, below zero to rewind
+     * @return The new world time
+     * @throws IllegalStateException If the world follows the real clock
+     */
+    long skipDays(long days);
+
+    /**
+     * Jumps the world time to the next start of a daypart, or to the first daypart after it if it is skipped that day
+     * @param type The {@link DayPartType} to jump to
+     * @return The new world time
+     * @throws IllegalStateException If the world follows the real clock
+     */
+    long skipToDayPart(DayPartType type);
+
+    /**
+     * Speeds up the world time until the next start of a daypart, or the first daypart after it if it is skipped that day, spreading the
+     * warped time evenly over an amount of server ticks. Every daypart passed on the way changes as it would at normal speed. The fast
+     * forward ends early if the time is changed by anything else. Worlds sharing the clock of their group jump at once instead
+     * @param type The {@link DayPartType} to fast forward to
+     * @param ticks The server ticks to take, zero or below to jump at once
+     * @return The warped ticks until the daypart is reached, as counted by {@link #getScheduler()}
+     * @throws IllegalStateException If the world follows the real clock
+     */
+    long fastForwardToDayPart(DayPartType type, long ticks);
+
+    /**
+     * Gets whether a fast forward started by {@link #fastForwardToDayPart(DayPartType, long)} is still running
+     * @return True if the world is fast forwarding, false if not
+     */
+    boolean isFastForwarding();
+
+    /**
+     * Wakes every sleeping player in this world and clears the weather as vanilla Minecraft does once the night is skipped
+     */
+    void wakeSleepingPlayers();
+
+    /**
+     * Resolves the schedule of this world from the current configuration now rather than on its next tick
+     */
+    void refreshSnapshot();
+
+    /**
+     * Captures the progress of the clock stepping this world, to be saved alongside it
+     * @return The warp state, {@link Optional#empty()} if this world is not warped or follows the real clock
+     */
+    Optional<WarpState> captureWarpState();
+
+    /**
+     * Restores the progress of the clock stepping this world from a saved state, as soon as the schedule of this world is resolved. The
+     * state is dropped if the world time changed since it was captured
+     * @param state The warp state
+     */
+    void restoreWarpState(WarpState state);
+
+    /**
+     * Gets the time of this world as of the end of the last tick. Safe to call from any thread, prefer the {@link TimeService} outside
+     * of TimeWarp
+     * @return The time snapshot, {@link Optional#empty()} if the world has not ticked yet
+     */
+    Optional<TimeSnapshot> getTimeSnapshot();
+
+    /**
+     * Gets the scheduler that runs tasks in this world by warped ticks and dayparts. It advances with the world time and must only be
+     * used on the main thread
+     * @return The warped scheduler
+     */
+    WarpScheduler getScheduler();
+
+    /**
+     * Gets the amount of time update packets sent to players in this world
+     * @return The time update packets sent
+     */
+    long getTimePacketsSent();
+
+    /**
+     * Gets the amount of time update packets that were not sent to players in this world as their clients were already in sync
+     * @return The time update packets skipped
+     */
+    long getTimePacketsSkipped();
+
+    /**
+     * Gets a copy of the metrics recorded for this world. Metrics are only recorded while enabled in the configuration.
+     * @return The metrics snapshot
+     */
+    WorldMetrics.Snapshot getMetrics();
+
+    /**
+     * Resets the metrics recorded for this world
+     */
+    void resetMetrics();
+
     /**
      * Clears TimeWarp cache for this world
      */
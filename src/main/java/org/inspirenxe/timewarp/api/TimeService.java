@@ -0,0 +1,56 @@
+/*
+ * This file is part of TimeWarp, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) InspireNXE <http://github.com/InspireNXE/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.inspirenxe.timewarp.api;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Provides the latest {@link TimeSnapshot} of every loaded world. Registered with the Sponge service manager and safe to use from any
+ * thread, lookups take no locks and do not allocate.
+ */
+public interface TimeService {
+
+    /**
+     * Gets the latest {@link TimeSnapshot} of a world.
+     * @param worldUniqueId The unique id of the world.
+     * @return The {@link TimeSnapshot}, {@link Optional#empty()} if the world is not loaded or has not ticked yet.
+     */
+    Optional<TimeSnapshot> getSnapshot(UUID worldUniqueId);
+
+    /**
+     * Gets the latest {@link TimeSnapshot} of a world.
+     * @param worldName The name of the world, case insensitive.
+     * @return The {@link TimeSnapshot}, {@link Optional#empty()} if the world is not loaded or has not ticked yet.
+     */
+    Optional<TimeSnapshot> getSnapshot(String worldName);
+
+    /**
+     * Gets the latest {@link TimeSnapshot} of every loaded world that has ticked.
+     * @return A new collection of {@link TimeSnapshot}s.
+     */
+    Collection<TimeSnapshot> getSnapshots();
+}
@@ -0,0 +1,154 @@
+/*
+ * This file is part of TimeWarp, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) InspireNXE <http://github.com/InspireNXE/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.inspirenxe.timewarp.api;
+
+import org.inspirenxe.timewarp.daypart.DayPartType;
+import org.inspirenxe.timewarp.world.WarpSchedule;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The time of a single world as of the end of a server tick. Immutable and safe to read from any thread, see {@link TimeService}.
+ */
+public final class TimeSnapshot {
+
+    private final UUID worldUniqueId;
+    private final String worldName;
+    private final long vanillaTime;
+    private final long warpedTime;
+    private final DayPartType dayPartType;
+    private final long dayPartElapsed;
+    private final long dayPartLength;
+    private final long daysPassed;
+    private final Optional<TimeSnapshot> optional;
+
+    public TimeSnapshot(UUID worldUniqueId, String worldName, long vanillaTime, long warpedTime, DayPartType dayPartType,
+            long dayPartElapsed, long dayPartLength, long daysPassed) {
+        this.worldUniqueId = worldUniqueId;
+        this.worldName = worldName;
+        this.vanillaTime = vanillaTime;
+        this.warpedTime = warpedTime;
+        this.dayPartType = dayPartType;
+        this.dayPartElapsed = dayPartElapsed;
+        this.dayPartLength = dayPartLength;
+        this.daysPassed = daysPassed;
+        this.optional = Optional.of(this);
+    }
+
+    /**
+     * Gets this snapshot as an {@link Optional}, wrapped once so lookups can return it without allocating.
+     * @return This snapshot.
+     */
+    public Optional<TimeSnapshot> asOptional() {
+        return this.optional;
+    }
+
+    /**
+     * Gets the unique id of the world.
+     * @return The unique id.
+     */
+    public UUID getWorldUniqueId() {
+        return this.worldUniqueId;
+    }
+
+    /**
+     * Gets the name of the world.
+     * @return The world name.
+     */
+    public String getWorldName() {
+        return this.worldName;
+    }
+
+    /**
+     * Gets the vanilla world time, as clients show it.
+     * @return The vanilla world time.
+     */
+    public long getVanillaTime() {
+        return this.vanillaTime;
+    }
+
+    /**
+     * Gets the warped time, the server ticks it took the world to reach its time from the start of cycle 0, see {@link WarpSchedule}.
+     * Worlds that are not warped or follow the real clock use vanilla lengths.
+     * @return The warped time.
+     */
+    public long getWarpedTime() {
+        return this.warpedTime;
+    }
+
+    /**
+     * Gets the {@link DayPartType} the world is in.
+     * @return The {@link DayPartType}.
+     */
+    public DayPartType getDayPartType() {
+        return this.dayPartType;
+    }
+
+    /**
+     * Gets the warped ticks elapsed since the start of the daypart.
+     * @return The elapsed warped ticks.
+     */
+    public long getDayPartElapsed() {
+        return this.dayPartElapsed;
+    }
+
+    /**
+     * Gets the warped length of the daypart.
+     * @return The warped length.
+     */
+    public long getDayPartLength() {
+        return this.dayPartLength;
+    }
+
+    /**
+     * Gets the progress through the daypart.
+     * @return The progress, from zero at the start of the daypart up to but excluding one.
+     */
+    public double getDayPartProgress() {
+        return this.dayPartLength == 0L ? 0D : (double) this.dayPartElapsed / this.dayPartLength;
+    }
+
+    /**
+     * Gets the days passed in the world.
+     * @return The days passed.
+     */
+    public long getDaysPassed() {
+        return this.daysPassed;
+    }
+
+    @Override
+    public String toString() {
+        return "TimeSnapshot{" +
+                "worldName=" + worldName +
+                ", vanillaTime=" + vanillaTime +
+                ", warpedTime=" + warpedTime +
+                ", dayPartType=" + dayPartType +
+                ", dayPartElapsed=" + dayPartElapsed +
+                ", dayPartLength=" + dayPartLength +
+                ", daysPassed=" + daysPassed +
+                '}';
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * This file is part of TimeWarp, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) InspireNXE <http://github.com/InspireNXE/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.inspirenxe.timewarp.config;
+
+import com.google.common.collect.Maps;
+import ninja.leaping.configurate.ConfigurationNode;
+import org.inspirenxe.timewarp.daypart.DayPartType;
+import org.slf4j.Logger;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.SortedMap;
+
+/**
+ * The immutable, typed settings of a seasonal calendar mapped from "sync.calendars.&lt;calendar&gt;".
+ * <p>A calendar has keyframes on days of the year, each with a full set of daypart lengths. Days between keyframes are interpolated
+ * when the calendar is compiled into a {@link org.inspirenxe.timewarp.world.WorldCalendar}.</p>
+ */
+public final class CalendarSettings {
+
+    /**
+     * The year length used when none or an invalid one is configured.
+     */
+    public static final int DEFAULT_YEAR_LENGTH = 365;
+    private static final int TYPES = DayPartType.values().length;
+
+    /**
+     * The lower case name of the calendar.
+     */
+    public final String name;
+    /**
+     * The amount of in-game days in a year.
+     */
+    public final int yearLength;
+    private final int[] keyframeDays;
+    /**
+     * Indexed by keyframe times the amount of {@link DayPartType}s plus {@link DayPartType#ordinal()}.
+     */
+    private final long[] keyframeLengths;
+
+    private CalendarSettings(String name, int yearLength, int[] keyframeDays, long[] keyframeLengths) {
+        this.name = name;
+        this.yearLength = yearLength;
+        this.keyframeDays = keyframeDays;
+        this.keyframeLengths = keyframeLengths;
+    }
+
+    /**
+     * Maps a calendar node to {@link CalendarSettings}, falling back to vanilla Minecraft values for anything that cannot be used.
+     * @param name The name of the calendar.
+     * @param node The "sync.calendars.&lt;calendar&gt;" node.
+     * @param logger The {@link Logger} to warn about invalid values with.
+     * @return The {@link CalendarSettings}.
+     */
+    public static CalendarSettings of(String name, ConfigurationNode node, Logger logger) {
+        final String rootPath = "sync.calendars." + name.toLowerCase();
+        int yearLength = node.getNode("year-length").getInt(DEFAULT_YEAR_LENGTH);
+        if (yearLength < 1) {
+            logger.warn("Unable to use year length [" + yearLength + "] at [" + rootPath + ".year-length]. Defaulting to ["
+                    + DEFAULT_YEAR_LENGTH + "]");
+            yearLength = DEFAULT_YEAR_LENGTH;
+        }
+
+        final SortedMap<Integer, long[]> keyframes = Maps.newTreeMap();
+        for (Map.Entry<Object, ? extends ConfigurationNode> entry : node.getNode("keyframes").getChildrenMap().entrySet()) {
+            final String key = String.valueOf(entry.getKey());
+            final int day;
+            try {
+                day = Integer.parseInt(key);
+            } catch (NumberFormatException e) {
+                logger.warn("Unable to parse day [" + key + "] at [" + rootPath + ".keyframes]. Ignoring the keyframe.");
+                continue;
+            }
+            if (day < 0 || day >= yearLength) {
+                logger.warn("Unable to use day [" + day + "] at [" + rootPath + ".keyframes] as it is outside of the year [0, "
+                        + yearLength + "). Ignoring the keyframe.");
+                continue;
+            }
+            keyframes.put(day, WorldSettings.parseLengths(rootPath + ".keyframes." + key, entry.getValue(), logger));
+        }
+        if (keyframes.isEmpty()) {
+            logger.warn("Unable to find any keyframes at [" + rootPath + ".keyframes]. Defaulting to vanilla Minecraft lengths.");
+            final long[] lengths = new long[TYPES];
+            for (DayPartType type : DayPartType.values()) {
+                lengths[type.ordinal()] = type.defaultLength;
+            }
+            keyframes.put(0, lengths);
+        }
+
+        final int[] keyframeDays = new int[keyframes.size()];
+        final long[] keyframeLengths = new long[keyframes.size() * TYPES];
+        int index = 0;
+        for (Map.Entry<Integer, long[]> entry : keyframes.entrySet()) {
+            keyframeDays[index] = entry.getKey();
+            System.arraycopy(entry.getValue(), 0, keyframeLengths, index * TYPES, TYPES);
+            index++;
+        }
+        return new CalendarSettings(name.toLowerCase(), yearLength, keyframeDays, keyframeLengths);
+    }
+
+    /**
+     * Gets the amount of keyframes, always at least one.
+     * @return The amount of keyframes.
+     */
+    public int getKeyframeCount() {
+        return this.keyframeDays.length;
+    }
+
+    /**
+     * Gets the day of the year of a keyframe, keyframes are sorted by day.
+     * @param keyframe The index of the keyframe.
+     * @return The day of the year.
+     */
+    public int getKeyframeDay(int keyframe) {
+        return this.keyframeDays[keyframe];
+    }
+
+    /**
+     * Gets the length of a daypart at a keyframe.
+     * @param keyframe The index of the keyframe.
+     * @param type The {@link DayPartType}.
+     * @return The length, zero if the daypart is skipped.
+     */
+    public long getKeyframeLength(int keyframe, DayPartType type) {
+        return this.keyframeLengths[keyframe * TYPES + type.ordinal()];
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof CalendarSettings)) {
+            return false;
+        }
+        final CalendarSettings that = (CalendarSettings) other;
+        return this.yearLength == that.yearLength
+                && this.name.equals(that.name)
+                && Arrays.equals(this.keyframeDays, that.keyframeDays)
+                && Arrays.equals(this.keyframeLengths, that.keyframeLengths);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * this.name.hashCode() + Arrays.hashCode(this.keyframeDays)) + Arrays.hashCode(this.keyframeLengths);
+    }
+
+    @Override
+    public String toString() {
+        return "CalendarSettings{" +
+                "name=" + name +
+                ", yearLength=" + yearLength +
+                ", keyframeDays=" + Arrays.toString(keyframeDays) +
+                ", keyframeLengths=" + Arrays.toString(keyframeLengths) +
+                '}';
+    }
+}
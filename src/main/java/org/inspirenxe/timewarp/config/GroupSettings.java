@@ -0,0 +1,149 @@
+/*
+ * This file is part of TimeWarp, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) InspireNXE <http://github.com/InspireNXE/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.inspirenxe.timewarp.config;
+
+import ninja.leaping.configurate.ConfigurationNode;
+import org.inspirenxe.timewarp.daypart.DayPartType;
+import org.slf4j.Logger;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The immutable, typed settings of a schedule group mapped from "sync.groups.&lt;group&gt;".
+ * <p>Worlds reference a group by name to share its dayparts. With a shared clock every world in the group also shows the same time,
+ * which is then stepped once per server tick for the whole group.</p>
+ */
+public final class GroupSettings {
+
+    /**
+     * The lower case name of the group.
+     */
+    public final String name;
+    /**
+     * Whether every world in the group shares one clock.
+     */
+    public final boolean sharedClock;
+    /**
+     * The {@link DayPartType} to wake up at.
+     */
+    public final DayPartType wakeAtDayPart;
+    private final String calendar;
+    private final long[] lengths;
+
+    private GroupSettings(String name, boolean sharedClock, String calendar, DayPartType wakeAtDayPart, long[] lengths) {
+        this.name = name;
+        this.sharedClock = sharedClock;
+        this.calendar = calendar;
+        this.wakeAtDayPart = wakeAtDayPart;
+        this.lengths = lengths;
+    }
+
+    /**
+     * Maps a group node to {@link GroupSettings}, falling back to vanilla Minecraft values for anything that cannot be used.
+     * @param name The name of the group.
+     * @param node The "sync.groups.&lt;group&gt;" node.
+     * @param logger The {@link Logger} to warn about invalid values with.
+     * @return The {@link GroupSettings}.
+     */
+    public static GroupSettings of(String name, ConfigurationNode node, Logger logger) {
+        return of(name, node, Collections.emptyMap(), logger);
+    }
+
+    /**
+     * Maps a group node to {@link GroupSettings}, falling back to vanilla Minecraft values for anything that cannot be used.
+     * @param name The name of the group.
+     * @param node The "sync.groups.&lt;group&gt;" node.
+     * @param calendars The {@link CalendarSettings} keyed by lower case calendar name.
+     * @param logger The {@link Logger} to warn about invalid values with.
+     * @return The {@link GroupSettings}.
+     */
+    public static GroupSettings of(String name, ConfigurationNode node, Map<String, CalendarSettings> calendars, Logger logger) {
+        final String rootPath = "sync.groups." + name.toLowerCase();
+        return new GroupSettings(name.toLowerCase(), node.getNode("shared-clock").getBoolean(),
+                WorldSettings.parseCalendar(rootPath, node, calendars, logger), WorldSettings.parseWakeAtDayPart(rootPath, node, logger),
+                WorldSettings.parseLengths(rootPath, node, logger));
+    }
+
+    /**
+     * Gets the lower case name of the calendar the group follows.
+     * @return The calendar name if the group references an existing calendar, otherwise {@link Optional#empty()}.
+     */
+    public Optional<String> getCalendar() {
+        return Optional.ofNullable(this.calendar);
+    }
+
+    /**
+     * Gets the configured length of a daypart.
+     * @param type The {@link DayPartType}.
+     * @return The length, zero if the daypart is skipped.
+     */
+    public long getLength(DayPartType type) {
+        return this.lengths[type.ordinal()];
+    }
+
+    /**
+     * Gets a copy of every daypart length indexed by {@link DayPartType#ordinal()}.
+     * @return The daypart lengths.
+     */
+    long[] getLengths() {
+        return this.lengths.clone();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof GroupSettings)) {
+            return false;
+        }
+        final GroupSettings that = (GroupSettings) other;
+        return this.sharedClock == that.sharedClock
+                && this.wakeAtDayPart == that.wakeAtDayPart
+                && this.name.equals(that.name)
+                && Objects.equals(this.calendar, that.calendar)
+                && Arrays.equals(this.lengths, that.lengths);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * this.name.hashCode() + Arrays.hashCode(this.lengths);
+    }
+
+    @Override
+    public String toString() {
+        return "GroupSettings{" +
+                "name=" + name +
+                ", sharedClock=" + sharedClock +
+                ", calendar=" + calendar +
+                ", wakeAtDayPart=" + wakeAtDayPart +
+                ", lengths=" + Arrays.toString(lengths) +
+                '}';
+    }
+}
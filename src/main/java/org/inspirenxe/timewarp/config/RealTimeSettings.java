@@ -0,0 +1,159 @@
+/*
+ * This file is part of TimeWarp, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) InspireNXE <http://github.com/InspireNXE/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.inspirenxe.timewarp.config;
+
+import ninja.leaping.configurate.ConfigurationNode;
+import org.slf4j.Logger;
+
+import java.time.DateTimeException;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+
+/**
+ * The immutable, typed settings of a world that follows real time, mapped from "sync.worlds.&lt;world&gt;.real-time".
+ * <p>Sunrise and sunset are stored per month as seconds of the day, months without their own values use the values of the
+ * node.</p>
+ */
+public final class RealTimeSettings {
+
+    /**
+     * The time zone real time is read in.
+     */
+    public final ZoneId zone;
+    private final int[] sunrises = new int[Month.values().length];
+    private final int[] sunsets = new int[Month.values().length];
+
+    private RealTimeSettings(ZoneId zone, int[] sunrises, int[] sunsets) {
+        this.zone = zone;
+        System.arraycopy(sunrises, 0, this.sunrises, 0, this.sunrises.length);
+        System.arraycopy(sunsets, 0, this.sunsets, 0, this.sunsets.length);
+    }
+
+    /**
+     * Maps a real time node to {@link RealTimeSettings}, falling back to UTC and a sunrise at 06:00 and sunset at 18:00 for anything
+     * that cannot be used.
+     * @param rootPath The path of the node, used in warnings.
+     * @param node The "real-time" node.
+     * @param logger The {@link Logger} to warn about invalid values with.
+     * @return The {@link RealTimeSettings}.
+     */
+    public static RealTimeSettings of(String rootPath, ConfigurationNode node, Logger logger) {
+        final String zoneCandidate = node.getNode("zone").getString("UTC");
+        ZoneId zone;
+        try {
+            zone = ZoneId.of(zoneCandidate);
+        } catch (DateTimeException e) {
+            logger.warn("Unable to parse time zone [" + zoneCandidate + "] at [" + rootPath + ".zone]. Defaulting to [UTC]");
+            zone = ZoneOffset.UTC;
+        }
+
+        final int[] sunrises = new int[Month.values().length];
+        final int[] sunsets = new int[Month.values().length];
+        final int[] defaults = parseHours(rootPath, node, LocalTime.of(6, 0).toSecondOfDay(), LocalTime.of(18, 0).toSecondOfDay(), logger);
+        for (Month month : Month.values()) {
+            final ConfigurationNode monthNode = node.getNode("months", month.name().toLowerCase());
+            final int[] hours = monthNode.isVirtual() ? defaults
+                    : parseHours(rootPath + ".months." + month.name().toLowerCase(), monthNode, defaults[0], defaults[1], logger);
+            sunrises[month.ordinal()] = hours[0];
+            sunsets[month.ordinal()] = hours[1];
+        }
+        return new RealTimeSettings(zone, sunrises, sunsets);
+    }
+
+    private static int[] parseHours(String rootPath, ConfigurationNode node, int defaultSunrise, int defaultSunset, Logger logger) {
+        final int sunrise = parseTime(rootPath + ".sunrise", node.getNode("sunrise"), defaultSunrise, logger);
+        final int sunset = parseTime(rootPath + ".sunset", node.getNode("sunset"), defaultSunset, logger);
+        if (sunrise >= sunset) {
+            logger.warn("Unable to use a sunrise that is not before sunset at [" + rootPath + "]. Defaulting to [" +
+                    LocalTime.ofSecondOfDay(defaultSunrise) + "] and [" + LocalTime.ofSecondOfDay(defaultSunset) + "]");
+            return new int[] {defaultSunrise, defaultSunset};
+        }
+        return new int[] {sunrise, sunset};
+    }
+
+    private static int parseTime(String path, ConfigurationNode node, int defaultValue, Logger logger) {
+        final String candidate = node.getString();
+        if (candidate == null) {
+            return defaultValue;
+        }
+        try {
+            return LocalTime.parse(candidate).toSecondOfDay();
+        } catch (DateTimeParseException e) {
+            logger.warn("Unable to parse time [" + candidate + "] at [" + path + "], expected HH:mm. Defaulting to [" +
+                    LocalTime.ofSecondOfDay(defaultValue) + "]");
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Gets the sunrise in a month.
+     * @param month The {@link Month}.
+     * @return The sunrise in seconds of the day.
+     */
+    public int getSunrise(Month month) {
+        return this.sunrises[month.ordinal()];
+    }
+
+    /**
+     * Gets the sunset in a month.
+     * @param month The {@link Month}.
+     * @return The sunset in seconds of the day.
+     */
+    public int getSunset(Month month) {
+        return this.sunsets[month.ordinal()];
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof RealTimeSettings)) {
+            return false;
+        }
+        final RealTimeSettings that = (RealTimeSettings) other;
+        return this.zone.equals(that.zone)
+                && Arrays.equals(this.sunrises, that.sunrises)
+                && Arrays.equals(this.sunsets, that.sunsets);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * this.zone.hashCode() + Arrays.hashCode(this.sunrises)) + Arrays.hashCode(this.sunsets);
+    }
+
+    @Override
+    public String toString() {
+        return "RealTimeSettings{" +
+                "zone=" + zone +
+                ", sunrises=" + Arrays.toString(sunrises) +
+                ", sunsets=" + Arrays.toString(sunsets) +
+                '}';
+    }
+}
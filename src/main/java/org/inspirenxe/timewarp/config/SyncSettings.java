@@ -0,0 +1,254 @@
+/*
+ * This file is part of TimeWarp, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) InspireNXE <http://github.com/InspireNXE/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.inspirenxe.timewarp.config;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.google.common.reflect.TypeToken;
+import ninja.leaping.configurate.ConfigurationNode;
+import ninja.leaping.configurate.objectmapping.ObjectMappingException;
+import org.slf4j.Logger;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * The immutable, typed settings mapped from the "sync" node. Safe to read from any thread.
+ */
+public final class SyncSettings {
+
+    /**
+     * The settings used before the configuration has been loaded.
+     */
+    public static final SyncSettings DEFAULT = new SyncSettings(ImmutableList.of("overworld"), 20L, 2L, true, false, false,
+            false, 100L, ImmutableMap.of(), ImmutableMap.of(), ImmutableMap.of());
+
+    private final List<String> dimensions;
+    private final long timePacketResyncInterval;
+    private final long fastForwardPacketInterval;
+    private final boolean asyncSave;
+    private final boolean watch;
+    private final boolean metrics;
+    private final boolean lagCompensation;
+    private final long maxCatchUpTicks;
+    private final Map<String, CalendarSettings> calendars;
+    private final Map<String, GroupSettings> groups;
+    private final Map<String, WorldSettings> worlds;
+
+    private SyncSettings(List<String> dimensions, long timePacketResyncInterval, long fastForwardPacketInterval, boolean asyncSave,
+            boolean watch, boolean metrics, boolean lagCompensation, long maxCatchUpTicks, Map<String, CalendarSettings> calendars,
+            Map<String, GroupSettings> groups, Map<String, WorldSettings> worlds) {
+        this.dimensions = ImmutableList.copyOf(dimensions);
+        this.timePacketResyncInterval = timePacketResyncInterval;
+        this.fastForwardPacketInterval = fastForwardPacketInterval;
+        this.asyncSave = asyncSave;
+        this.watch = watch;
+        this.metrics = metrics;
+        this.lagCompensation = lagCompensation;
+        this.maxCatchUpTicks = maxCatchUpTicks;
+        this.calendars = ImmutableMap.copyOf(calendars);
+        this.groups = ImmutableMap.copyOf(groups);
+        this.worlds = ImmutableMap.copyOf(worlds);
+    }
+
+    /**
+     * Maps the "sync" node to {@link SyncSettings}.
+     * @param node The "sync" node.
+     * @param logger The {@link Logger} to warn about invalid values with.
+     * @return The {@link SyncSettings}.
+     */
+    public static SyncSettings of(ConfigurationNode node, Logger logger) {
+        final ConfigurationNode settingsNode = node.getNode("settings");
+
+        List<String> dimensions;
+        try {
+            dimensions = settingsNode.getNode("dimensions").getList(TypeToken.of(String.class));
+        } catch (ObjectMappingException e) {
+            logger.error("Unable to parse dimensions at [sync.settings.dimensions]!", e);
+            dimensions = DEFAULT.dimensions;
+        }
+
+        long maxCatchUpTicks = settingsNode.getNode("lag-compensation", "max-catch-up-ticks").getLong(DEFAULT.maxCatchUpTicks);
+        if (maxCatchUpTicks < 1) {
+            logger.warn("Unable to use value [" + maxCatchUpTicks + "] at [sync.settings.lag-compensation.max-catch-up-ticks] as it is "
+                    + "below 1. Defaulting to [" + DEFAULT.maxCatchUpTicks + "].");
+            maxCatchUpTicks = DEFAULT.maxCatchUpTicks;
+        }
+
+        long fastForwardPacketInterval = settingsNode.getNode("time-packets", "fast-forward-interval")
+                .getLong(DEFAULT.fastForwardPacketInterval);
+        if (fastForwardPacketInterval < 1) {
+            logger.warn("Unable to use value [" + fastForwardPacketInterval + "] at [sync.settings.time-packets.fast-forward-interval] as "
+                    + "it is below 1. Defaulting to [" + DEFAULT.fastForwardPacketInterval + "].");
+            fastForwardPacketInterval = DEFAULT.fastForwardPacketInterval;
+        }
+
+        final Map<String, CalendarSettings> calendars = Maps.newHashMap();
+        for (Map.Entry<Object, ? extends ConfigurationNode> entry : node.getNode("calendars").getChildrenMap().entrySet()) {
+            final CalendarSettings calendarSettings = CalendarSettings.of(String.valueOf(entry.getKey()), entry.getValue(), logger);
+            calendars.put(calendarSettings.name, calendarSettings);
+        }
+
+        final Map<String, GroupSettings> groups = Maps.newHashMap();
+        for (Map.Entry<Object, ? extends ConfigurationNode> entry : node.getNode("groups").getChildrenMap().entrySet()) {
+            final GroupSettings groupSettings = GroupSettings.of(String.valueOf(entry.getKey()), entry.getValue(), calendars, logger);
+            groups.put(groupSettings.name, groupSettings);
+        }
+
+        final Map<String, WorldSettings> worlds = Maps.newHashMap();
+        for (Map.Entry<Object, ? extends ConfigurationNode> entry : node.getNode("worlds").getChildrenMap().entrySet()) {
+            final WorldSettings worldSettings = WorldSettings.of(String.valueOf(entry.getKey()), entry.getValue(), calendars, groups,
+                    logger);
+            worlds.put(worldSettings.worldName, worldSettings);
+        }
+
+        return new SyncSettings(dimensions,
+                settingsNode.getNode("time-packets", "resync-interval").getLong(DEFAULT.timePacketResyncInterval),
+                fastForwardPacketInterval,
+                settingsNode.getNode("storage", "async-save").getBoolean(DEFAULT.asyncSave),
+                settingsNode.getNode("storage", "watch").getBoolean(DEFAULT.watch),
+                settingsNode.getNode("metrics", "enabled").getBoolean(DEFAULT.metrics),
+                settingsNode.getNode("lag-compensation", "enabled").getBoolean(DEFAULT.lagCompensation),
+                maxCatchUpTicks, calendars, groups, worlds);
+    }
+
+    /**
+     * Gets the ids of the supported dimension types.
+     * @return An immutable list of dimension type ids.
+     */
+    public List<String> getDimensions() {
+        return this.dimensions;
+    }
+
+    /**
+     * Gets the maximum amount of ticks between time update packets sent to players in warped worlds.
+     * @return The resync interval in ticks, zero or below to only send packets when clients are out of sync.
+     */
+    public long getTimePacketResyncInterval() {
+        return this.timePacketResyncInterval;
+    }
+
+    /**
+     * Gets the minimum amount of ticks between time update packets sent to players in worlds fast forwarding through the night.
+     * @return The fast forward interval in ticks.
+     */
+    public long getFastForwardPacketInterval() {
+        return this.fastForwardPacketInterval;
+    }
+
+    /**
+     * Gets whether the configuration is saved through a background writer.
+     * @return True if saved asynchronously, false if not.
+     */
+    public boolean isAsyncSave() {
+        return this.asyncSave;
+    }
+
+    /**
+     * Gets whether the configuration file is watched for changes and reloaded automatically.
+     * @return True if watched, false if not.
+     */
+    public boolean isWatch() {
+        return this.watch;
+    }
+
+    /**
+     * Gets whether per world metrics are recorded, see {@link org.inspirenxe.timewarp.engine.WorldMetrics}.
+     * @return True if recorded, false if not.
+     */
+    public boolean isMetrics() {
+        return this.metrics;
+    }
+
+    /**
+     * Gets whether warped time follows real time while the server runs below 20 ticks per second, see
+     * {@link org.inspirenxe.timewarp.engine.LagCompensator}.
+     * @return True if compensated, false if not.
+     */
+    public boolean isLagCompensation() {
+        return this.lagCompensation;
+    }
+
+    /**
+     * Gets the maximum amount of ticks warped time advances by in a single server tick while lag compensation is enabled.
+     * @return The maximum ticks.
+     */
+    public long getMaxCatchUpTicks() {
+        return this.maxCatchUpTicks;
+    }
+
+    /**
+     * Gets the {@link CalendarSettings} of a calendar.
+     * @param name The name of the calendar, case insensitive.
+     * @return The {@link CalendarSettings} if the calendar is configured, otherwise {@link Optional#empty()}.
+     */
+    public Optional<CalendarSettings> getCalendar(String name) {
+        return Optional.ofNullable(this.calendars.get(name.toLowerCase()));
+    }
+
+    /**
+     * Gets the {@link CalendarSettings} of every configured calendar keyed by lower case calendar name.
+     * @return An immutable map of {@link CalendarSettings}.
+     */
+    public Map<String, CalendarSettings> getCalendars() {
+        return this.calendars;
+    }
+
+    /**
+     * Gets the {@link GroupSettings} of a group.
+     * @param name The name of the group, case insensitive.
+     * @return The {@link GroupSettings} if the group is configured, otherwise {@link Optional#empty()}.
+     */
+    public Optional<GroupSettings> getGroup(String name) {
+        return Optional.ofNullable(this.groups.get(name.toLowerCase()));
+    }
+
+    /**
+     * Gets the {@link GroupSettings} of every configured group keyed by lower case group name.
+     * @return An immutable map of {@link GroupSettings}.
+     */
+    public Map<String, GroupSettings> getGroups() {
+        return this.groups;
+    }
+
+    /**
+     * Gets the {@link WorldSettings} of a world.
+     * @param worldName The name of the world, case insensitive.
+     * @return The {@link WorldSettings} if the world is configured, otherwise {@link Optional#empty()}.
+     */
+    public Optional<WorldSettings> getWorld(String worldName) {
+        return Optional.ofNullable(this.worlds.get(worldName.toLowerCase()));
+    }
+
+    /**
+     * Gets the {@link WorldSettings} of every configured world keyed by lower case world name.
+     * @return An immutable map of {@link WorldSettings}.
+     */
+    public Map<String, WorldSettings> getWorlds() {
+        return this.worlds;
+    }
+}
@@ -0,0 +1,295 @@
+/*
+ * This file is part of TimeWarp, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) InspireNXE <http://github.com/InspireNXE/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.inspirenxe.timewarp.config;
+
+import ninja.leaping.configurate.ConfigurationNode;
+import org.inspirenxe.timewarp.daypart.DayPartType;
+import org.slf4j.Logger;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The immutable, typed settings of a world mapped from "sync.worlds.&lt;world&gt;".
+ */
+public final class WorldSettings {
+
+    /**
+     * The lower case name of the world these settings are for.
+     */
+    public final String worldName;
+    /**
+     * Whether time is warped in the world.
+     */
+    public final boolean enabled;
+    /**
+     * The {@link DayPartType} to wake up at.
+     */
+    public final DayPartType wakeAtDayPart;
+    /**
+     * The percentage of players in the world that have to sleep to skip the night, 100 to require every player as vanilla Minecraft does.
+     */
+    public final int sleepPercentage;
+    /**
+     * The server ticks to fast forward through the night over once enough players sleep, zero to skip it at once.
+     */
+    public final long sleepFastForwardTicks;
+    private final String group;
+    private final RealTimeSettings realTime;
+    private final String calendar;
+    private final long[] lengths = new long[DayPartType.values().length];
+
+    private WorldSettings(String worldName, boolean enabled, String group, RealTimeSettings realTime, String calendar,
+            DayPartType wakeAtDayPart, int sleepPercentage, long sleepFastForwardTicks, long[] lengths) {
+        this.worldName = worldName;
+        this.enabled = enabled;
+        this.group = group;
+        this.realTime = realTime;
+        this.calendar = calendar;
+        this.wakeAtDayPart = wakeAtDayPart;
+        this.sleepPercentage = sleepPercentage;
+        this.sleepFastForwardTicks = sleepFastForwardTicks;
+        System.arraycopy(lengths, 0, this.lengths, 0, this.lengths.length);
+    }
+
+    /**
+     * Maps a world node to {@link WorldSettings}, falling back to vanilla Minecraft values for anything that cannot be used.
+     * @param worldName The name of the world.
+     * @param node The "sync.worlds.&lt;world&gt;" node.
+     * @param logger The {@link Logger} to warn about invalid values with.
+     * @return The {@link WorldSettings}.
+     */
+    public static WorldSettings of(String worldName, ConfigurationNode node, Logger logger) {
+        return of(worldName, node, Collections.emptyMap(), Collections.emptyMap(), logger);
+    }
+
+    /**
+     * Maps a world node to {@link WorldSettings}, falling back to vanilla Minecraft values for anything that cannot be used.
+     * <p>Worlds that reference a group take their dayparts and wake up daypart from the group instead of their own node, and follow
+     * the calendar of the group unless they reference one themselves and the group does not share one clock. Dayparts or a calendar of
+     * their own that are ignored this way are warned about.</p>
+     * @param worldName The name of the world.
+     * @param node The "sync.worlds.&lt;world&gt;" node.
+     * @param calendars The {@link CalendarSettings} keyed by lower case calendar name.
+     * @param groups The {@link GroupSettings} keyed by lower case group name.
+     * @param logger The {@link Logger} to warn about invalid values with.
+     * @return The {@link WorldSettings}.
+     */
+    public static WorldSettings of(String worldName, ConfigurationNode node, Map<String, CalendarSettings> calendars,
+            Map<String, GroupSettings> groups, Logger logger) {
+        final String rootPath = "sync.worlds." + worldName.toLowerCase();
+        final boolean enabled = node.getNode("enabled").getBoolean();
+        final RealTimeSettings realTime = node.getNode("real-time", "enabled").getBoolean()
+                ? RealTimeSettings.of(rootPath + ".real-time", node.getNode("real-time"), logger) : null;
+        final String calendar = parseCalendar(rootPath, node, calendars, logger);
+        final int sleepPercentage = parseSleepPercentage(rootPath, node, logger);
+        final long sleepFastForwardTicks = Math.max(0L, node.getNode("sleep-fast-forward-ticks").getLong());
+        final String groupName = node.getNode("group").getString("").toLowerCase();
+        if (!groupName.isEmpty()) {
+            final GroupSettings group = groups.get(groupName);
+            if (group != null) {
+                if (!node.getNode("dayparts").isVirtual()) {
+                    logger.warn("Ignoring the dayparts at [" + rootPath + ".dayparts] as the world is in group [" + group.name + "]. Using "
+                            + "the dayparts of the group instead.");
+                }
+                // Worlds sharing one clock can only step through the calendar of the group
+                if (group.sharedClock && calendar != null && !calendar.equals(group.getCalendar().orElse(null))) {
+                    logger.warn("Ignoring the calendar at [" + rootPath + ".calendar] as group [" + group.name + "] shares one clock. "
+                            + "Using the calendar of the group instead.");
+                }
+                return new WorldSettings(worldName.toLowerCase(), enabled, group.name, realTime,
+                        calendar != null && !group.sharedClock ? calendar : group.getCalendar().orElse(null), group.wakeAtDayPart,
+                        sleepPercentage, sleepFastForwardTicks, group.getLengths());
+            }
+            logger.warn("Unable to find group [" + groupName + "] referenced at [" + rootPath + ".group]. Using the dayparts of the world "
+                    + "instead.");
+        }
+
+        return new WorldSettings(worldName.toLowerCase(), enabled, null, realTime, calendar, parseWakeAtDayPart(rootPath, node, logger),
+                sleepPercentage, sleepFastForwardTicks, parseLengths(rootPath, node, logger));
+    }
+
+    /**
+     * Maps the "dayparts" child of a node to daypart lengths indexed by {@link DayPartType#ordinal()}.
+     * @param rootPath The path of the node, used in warnings.
+     * @param node The node.
+     * @param logger The {@link Logger} to warn about invalid values with.
+     * @return The daypart lengths.
+     */
+    static long[] parseLengths(String rootPath, ConfigurationNode node, Logger logger) {
+        final long[] lengths = new long[DayPartType.values().length];
+        long dayLength = 0;
+        for (DayPartType type : DayPartType.values()) {
+            long daypartValue = Math.max(0, node.getNode("dayparts", type.name.toLowerCase()).getLong());
+            if (daypartValue != 0 && daypartValue < type.defaultLength) {
+                logger.warn(String.format("Unable to use value [%1s] in [%2s] for DayPart [%3s] as the value is below "
+                                + "vanilla Minecraft length [%4s]. If you are trying to skip this DayPart please use 0 as the value.",
+                        daypartValue, rootPath, type.name, type.defaultLength));
+                daypartValue = type.defaultLength;
+            }
+            lengths[type.ordinal()] = daypartValue;
+            dayLength += daypartValue;
+        }
+        if (dayLength == 0) {
+            logger.warn("Unable to skip every DayPart in [" + rootPath + "]. Defaulting to vanilla Minecraft lengths.");
+            for (DayPartType type : DayPartType.values()) {
+                lengths[type.ordinal()] = type.defaultLength;
+            }
+        }
+        return lengths;
+    }
+
+    /**
+     * Maps the "calendar" child of a node to the name of a configured calendar.
+     * @param rootPath The path of the node, used in warnings.
+     * @param node The node.
+     * @param calendars The {@link CalendarSettings} keyed by lower case calendar name.
+     * @param logger The {@link Logger} to warn about invalid values with.
+     * @return The lower case calendar name, null if none is referenced or it does not exist.
+     */
+    static String parseCalendar(String rootPath, ConfigurationNode node, Map<String, CalendarSettings> calendars, Logger logger) {
+        final String calendar = node.getNode("calendar").getString("").toLowerCase();
+        if (calendar.isEmpty()) {
+            return null;
+        }
+        if (!calendars.containsKey(calendar)) {
+            logger.warn("Unable to find calendar [" + calendar + "] referenced at [" + rootPath + ".calendar]. Using fixed dayparts "
+                    + "instead.");
+            return null;
+        }
+        return calendar;
+    }
+
+    /**
+     * Maps the "wake-at-daypart" child of a node to a {@link DayPartType}.
+     * @param rootPath The path of the node, used in warnings.
+     * @param node The node.
+     * @param logger The {@link Logger} to warn about invalid values with.
+     * @return The {@link DayPartType} to wake up at.
+     */
+    static DayPartType parseWakeAtDayPart(String rootPath, ConfigurationNode node, Logger logger) {
+        final String dayPartCandidate = node.getNode("wake-at-daypart").getString(DayPartType.DAY.name.toUpperCase()).toUpperCase();
+        try {
+            return DayPartType.valueOf(dayPartCandidate);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Unable to parse [" + dayPartCandidate + "] at [" + rootPath + ".wake-at-daypart]. Defaulting to DayPart [" +
+                    DayPartType.DAY.name.toUpperCase() + "]");
+            return DayPartType.DAY;
+        }
+    }
+
+    /**
+     * Maps the "sleep-percentage" child of a world node to the percentage of players that have to sleep to skip the night.
+     * @param rootPath The path of the node, used in warnings.
+     * @param node The node.
+     * @param logger The {@link Logger} to warn about invalid values with.
+     * @return The percentage, from 1 to 100.
+     */
+    static int parseSleepPercentage(String rootPath, ConfigurationNode node, Logger logger) {
+        final int sleepPercentage = node.getNode("sleep-percentage").getInt(100);
+        if (sleepPercentage < 1 || sleepPercentage > 100) {
+            logger.warn("Unable to use value [" + sleepPercentage + "] at [" + rootPath + ".sleep-percentage] as it is not between 1 and "
+                    + "100. Defaulting to [100].");
+            return 100;
+        }
+        return sleepPercentage;
+    }
+
+    /**
+     * Gets the lower case name of the group the world takes its schedule from.
+     * @return The group name if the world references an existing group, otherwise {@link Optional#empty()}.
+     */
+    public Optional<String> getGroup() {
+        return Optional.ofNullable(this.group);
+    }
+
+    /**
+     * Gets the {@link RealTimeSettings} of the world.
+     * @return The {@link RealTimeSettings} if time follows real time in the world, otherwise {@link Optional#empty()}.
+     */
+    public Optional<RealTimeSettings> getRealTime() {
+        return Optional.ofNullable(this.realTime);
+    }
+
+    /**
+     * Gets the lower case name of the calendar the world follows.
+     * @return The calendar name if the world or its group references an existing calendar, otherwise {@link Optional#empty()}.
+     */
+    public Optional<String> getCalendar() {
+        return Optional.ofNullable(this.calendar);
+    }
+
+    /**
+     * Gets the configured length of a daypart.
+     * @param type The {@link DayPartType}.
+     * @return The length, zero if the daypart is skipped.
+     */
+    public long getLength(DayPartType type) {
+        return this.lengths[type.ordinal()];
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof WorldSettings)) {
+            return false;
+        }
+        final WorldSettings that = (WorldSettings) other;
+        return this.enabled == that.enabled
+                && this.wakeAtDayPart == that.wakeAtDayPart
+                && this.sleepPercentage == that.sleepPercentage
+                && this.sleepFastForwardTicks == that.sleepFastForwardTicks
+                && this.worldName.equals(that.worldName)
+                && Objects.equals(this.group, that.group)
+                && Objects.equals(this.realTime, that.realTime)
+                && Objects.equals(this.calendar, that.calendar)
+                && Arrays.equals(this.lengths, that.lengths);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * this.worldName.hashCode() + Arrays.hashCode(this.lengths);
+    }
+
+    @Override
+    public String toString() {
+        return "WorldSettings{" +
+                "worldName=" + worldName +
+                ", enabled=" + enabled +
+                ", group=" + group +
+                ", realTime=" + realTime +
+                ", calendar=" + calendar +
+                ", wakeAtDayPart=" + wakeAtDayPart +
+                ", sleepPercentage=" + sleepPercentage +
+                ", sleepFastForwardTicks=" + sleepFastForwardTicks +
+                ", lengths=" + Arrays.toString(lengths) +
+                '}';
+    }
+}
@@ -24,14 +24,23 @@
  */
 package org.inspirenxe.timewarp.daypart;
 
-public class DayPart {
+/**
+ * The custom length of a daypart in a schedule. Immutable, as dayparts are shared by {@link org.inspirenxe.timewarp.world.WorldDay}s
+ * that are published to other threads.
+ */
+public final class DayPart {
 
     private final DayPartType type;
-    private long length;
+    private final long length;
 
+    /**
+     * Creates a daypart.
+     * @param type The {@link DayPartType}.
+     * @param length The custom length, lengths below zero are treated as zero.
+     */
     public DayPart(DayPartType type, long length) {
         this.type = type;
-        this.setLength(length);
+        this.length = Math.max(0L, length);
     }
 
     /**
@@ -50,17 +59,6 @@ public class DayPart {
         return length;
     }
 
-    /**
-     * Sets the custom length of the daypart, cannot go below zero.
-     * @param value The value to use for the daypart length.
-     */
-    public void setLength(long value) {
-        if (value < 0) {
-            value = 0;
-        }
-        length = value;
-    }
-
     @Override
     public String toString() {
         return "DayPart{" +
@@ -38,6 +38,21 @@ public enum DayPartType {
 
     public static final long DEFAULT_DAY_LENGTH = 24000L;
 
+    /**
+     * Lookup table of {@link DayPartType} ordinals indexed by vanilla time of day.
+     * Each type owns the half-open range [defaultStartTime, defaultEndTime).
+     */
+    private static final byte[] ORDINAL_BY_TIME = new byte[(int) DEFAULT_DAY_LENGTH];
+    private static final DayPartType[] VALUES = values();
+
+    static {
+        for (DayPartType type : VALUES) {
+            for (long time = type.defaultStartTime; time != type.defaultEndTime; time = (time + 1) % DEFAULT_DAY_LENGTH) {
+                ORDINAL_BY_TIME[(int) time] = (byte) type.ordinal();
+            }
+        }
+    }
+
     public final String name;
     public final long defaultLength;
     public final long defaultStartTime;
@@ -58,7 +73,7 @@ public enum DayPartType {
      * @return The {@link DayPartType} that matches the time of day.
      */
     public static Optional<DayPartType> getTypeFromTime(long time) {
-        for (DayPartType type : DayPartType.values()) {
+        for (DayPartType type : VALUES) {
             if (isWithinTimeRange(type, time)) {
                 return Optional.of(type);
             }
@@ -66,6 +81,17 @@ public enum DayPartType {
         return Optional.empty();
     }
 
+    /**
+     * Gets the daypart type based on the time in constant time.
+     * <p>Unlike {@link DayPartType#getTypeFromTime(long)}, each type owns the half-open range [defaultStartTime, defaultEndTime) so
+     * there is exactly one match for every time of day.</p>
+     * @param time The time of day, in the range [0, {@link DayPartType#DEFAULT_DAY_LENGTH}).
+     * @return The {@link DayPartType} that matches the time of day.
+     */
+    public static DayPartType fromTime(long time) {
+        return VALUES[ORDINAL_BY_TIME[(int) time]];
+    }
+
     /**
      * Determines if the time is within the specified {@link DayPartType} time range
      * @param dayPartType The day part type to check against
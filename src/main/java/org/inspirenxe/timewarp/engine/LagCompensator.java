@@ -0,0 +1,91 @@
+/*
+ * This file is part of TimeWarp, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) InspireNXE <http://github.com/InspireNXE/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.inspirenxe.timewarp.engine;
+
+/**
+ * Converts the real time elapsed between server ticks into the amount of warped ticks a clock should advance by, so days keep their
+ * configured length in real time while the server runs below 20 ticks per second.
+ * <p>Time is measured with {@link System#nanoTime()}, which is monotonic and unaffected by changes to the wall clock. The elapsed time
+ * is rounded to whole ticks and what is left over carries over to the next tick, so the normal jitter of a server at 20 ticks per
+ * second always advances by exactly one tick and only a carry of more than half a tick either way changes the amount. Ticks above the
+ * cap are dropped so a long stall does not make time jump.</p>
+ */
+public final class LagCompensator {
+
+    /**
+     * The real time a server tick takes at 20 ticks per second, in nanoseconds.
+     */
+    public static final long TICK_NANOS = 50_000_000L;
+
+    private long lastNanos;
+    private boolean started;
+    private long carry;
+
+    /**
+     * Measures the real time elapsed since the previous tick.
+     * @param maxTicks The maximum ticks to advance by, zero or below to disable compensation.
+     * @return The warped ticks to advance by, one if compensation is disabled.
+     */
+    public long tick(long maxTicks) {
+        if (maxTicks <= 0L) {
+            // Start over once compensation is enabled again instead of catching up on the time it was disabled for
+            this.started = false;
+            return 1L;
+        }
+        return this.tick(System.nanoTime(), maxTicks);
+    }
+
+    /**
+     * Measures the real time elapsed since the previous tick.
+     * @param nanoTime The current monotonic time, in nanoseconds.
+     * @param maxTicks The maximum ticks to advance by, above zero.
+     * @return The warped ticks to advance by, which may be zero if the server is catching up on ticks it missed.
+     */
+    public long tick(long nanoTime, long maxTicks) {
+        if (!this.started) {
+            this.started = true;
+            this.lastNanos = nanoTime;
+            this.carry = 0L;
+            return 1L;
+        }
+        final long elapsed = nanoTime - this.lastNanos + this.carry;
+        this.lastNanos = nanoTime;
+        // Round rather than floor, a tick ending a little early or late then stays on the plain single tick path
+        final long ticks = (elapsed + TICK_NANOS / 2) / TICK_NANOS;
+        if (ticks > maxTicks) {
+            this.carry = 0L;
+            return maxTicks;
+        }
+        this.carry = elapsed - ticks * TICK_NANOS;
+        return ticks;
+    }
+
+    /**
+     * Starts over on the next tick, dropping the time measured so far.
+     */
+    public void reset() {
+        this.started = false;
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * This file is part of TimeWarp, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) InspireNXE <http://github.com/InspireNXE/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.inspirenxe.timewarp.engine;
+
+import org.inspirenxe.timewarp.config.RealTimeSettings;
+import org.inspirenxe.timewarp.daypart.DayPartType;
+
+import java.time.Instant;
+import java.time.Month;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Derives the vanilla world time from real time.
+ * <p>Daylight, from sunrise to sunset, is spread over {@link DayPartType#MORNING} to {@link DayPartType#DUSK} and the dark hours
+ * over {@link DayPartType#EVENING} and {@link DayPartType#NIGHT}. Each real day is one Minecraft day counted from the epoch, so
+ * time never falls behind when the server lags.</p>
+ * <p>The time zone conversion only runs once per real second, every other call in the same second returns the cached time. One clock
+ * may be shared by every world using the same {@link RealTimeSettings}.</p>
+ */
+public final class RealTimeClock {
+
+    private static final long SECONDS_PER_DAY = TimeUnit.DAYS.toSeconds(1);
+    private static final long DAYLIGHT_START = DayPartType.MORNING.defaultStartTime;
+    private static final long DAYLIGHT_LENGTH = DayPartType.MORNING.defaultLength + DayPartType.DAY.defaultLength
+            + DayPartType.DUSK.defaultLength;
+    private static final long DARK_START = DayPartType.EVENING.defaultStartTime;
+    private static final long DARK_LENGTH = DayPartType.DEFAULT_DAY_LENGTH - DAYLIGHT_LENGTH;
+
+    private final RealTimeSettings settings;
+    private long cachedSecond = Long.MIN_VALUE;
+    private long cachedWorldTime;
+
+    public RealTimeClock(RealTimeSettings settings) {
+        this.settings = settings;
+    }
+
+    /**
+     * Gets the vanilla world time at a point in real time.
+     * @param epochMillis The real time in milliseconds since the epoch, see {@link System#currentTimeMillis()}.
+     * @return The vanilla world time.
+     */
+    public long getWorldTime(long epochMillis) {
+        final long second = Math.floorDiv(epochMillis, 1000L);
+        if (second != this.cachedSecond) {
+            this.cachedSecond = second;
+            this.cachedWorldTime = this.computeWorldTime(second);
+        }
+        return this.cachedWorldTime;
+    }
+
+    /**
+     * Gets the {@link RealTimeSettings} this clock follows.
+     * @return The {@link RealTimeSettings}.
+     */
+    public RealTimeSettings getSettings() {
+        return this.settings;
+    }
+
+    private long computeWorldTime(long epochSecond) {
+        final ZonedDateTime dateTime = Instant.ofEpochSecond(epochSecond).atZone(this.settings.zone);
+        final Month month = dateTime.getMonth();
+        final int sunrise = this.settings.getSunrise(month);
+        final int sunset = this.settings.getSunset(month);
+
+        // Count days from local midnight so the day only rolls over once per real day
+        final long midnight = getTimeOfDay(0, sunrise, sunset);
+        final long timeOfDay = getTimeOfDay(dateTime.toLocalTime().toSecondOfDay(), sunrise, sunset);
+        return dateTime.toLocalDate().toEpochDay() * DayPartType.DEFAULT_DAY_LENGTH + midnight
+                + Math.floorMod(timeOfDay - midnight, DayPartType.DEFAULT_DAY_LENGTH);
+    }
+
+    /**
+     * Maps a second of the real day onto the vanilla time of day.
+     * @param secondOfDay The second of the day.
+     * @param sunrise The sunrise in seconds of the day.
+     * @param sunset The sunset in seconds of the day, after sunrise.
+     * @return The vanilla time of day.
+     */
+    static long getTimeOfDay(int secondOfDay, int sunrise, int sunset) {
+        final long daylight = sunset - sunrise;
+        final long time;
+        if (secondOfDay >= sunrise && secondOfDay < sunset) {
+            time = DAYLIGHT_START + (secondOfDay - sunrise) * DAYLIGHT_LENGTH / daylight;
+        } else {
+            time = DARK_START + Math.floorMod(secondOfDay - sunset, SECONDS_PER_DAY) * DARK_LENGTH / (SECONDS_PER_DAY - daylight);
+        }
+        return time % DayPartType.DEFAULT_DAY_LENGTH;
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * This file is part of TimeWarp, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) InspireNXE <http://github.com/InspireNXE/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.inspirenxe.timewarp.engine;
+
+import org.inspirenxe.timewarp.world.WorldCalendar;
+import org.inspirenxe.timewarp.world.WorldTimeline;
+
+/**
+ * A {@link WorldClock} and {@link TimePacketPolicy} shared by several worlds, stepped at most once per server tick.
+ * <p>The first world to tick in a server tick steps the clock, every other world only reads the result. The cost of warping time
+ * therefore grows with the amount of shared clocks rather than the amount of worlds using them. Only the world time is shared, every
+ * world keeps its own total time.</p>
+ */
+public final class SharedClock {
+
+    private final WorldClock clock;
+    private final WorldCalendar calendar;
+    private final TimePacketPolicy timePacketPolicy = new TimePacketPolicy();
+    private final LagCompensator lagCompensator = new LagCompensator();
+    private long serverTick = Long.MIN_VALUE;
+    private long worldTime = -1L;
+    private long steppedTicks;
+    private boolean timePacketDue;
+
+    public SharedClock(WorldTimeline timeline) {
+        this(timeline, null);
+    }
+
+    /**
+     * Creates a shared clock.
+     * @param timeline The {@link WorldTimeline} to step through.
+     * @param calendar The {@link WorldCalendar} to step through instead of the timeline, null if none.
+     */
+    public SharedClock(WorldTimeline timeline, WorldCalendar calendar) {
+        this.clock = new WorldClock(timeline);
+        this.calendar = calendar;
+    }
+
+    public boolean tick(long serverTick, long worldTime, long resyncInterval) {
+        return this.tick(serverTick, worldTime, resyncInterval, 0L);
+    }
+
+    /**
+     * Steps the clock if it has not been stepped in this server tick yet.
+     * @param serverTick The current server tick.
+     * @param worldTime The vanilla world time of the calling world, used to start the clock if it has never been stepped.
+     * @param resyncInterval The resync interval passed to the {@link TimePacketPolicy}.
+     * @param maxCatchUpTicks The cap passed to the {@link LagCompensator}, zero or below to step exactly one tick.
+     * @return True if this call stepped the clock, false if another world already did in this server tick.
+     */
+    public boolean tick(long serverTick, long worldTime, long resyncInterval, long maxCatchUpTicks) {
+        if (this.serverTick == serverTick) {
+            return false;
+        }
+        if (this.worldTime == -1L) {
+            this.start(worldTime);
+        }
+        this.serverTick = serverTick;
+        this.steppedTicks = this.lagCompensator.tick(maxCatchUpTicks);
+        this.worldTime = this.clock.advance(this.worldTime, this.steppedTicks);
+        this.timePacketDue = this.timePacketPolicy.tick(this.worldTime, this.clock.isClientPredictable(), resyncInterval);
+        return true;
+    }
+
+    private void start(long worldTime) {
+        if (this.calendar != null) {
+            this.clock.setCalendar(this.calendar, worldTime);
+        }
+        this.setWorldTime(worldTime);
+    }
+
+    /**
+     * Restarts the clock from a captured {@link WarpState} if it has never been stepped, the first world of the group to load decides.
+     * @param state The {@link WarpState}.
+     * @return True if the progress was restored, false if not.
+     */
+    public boolean restore(WarpState state) {
+        if (this.worldTime != -1L) {
+            return false;
+        }
+        this.start(state.worldTime);
+        return this.clock.restore(state);
+    }
+
+    /**
+     * Jumps every world sharing this clock by an amount of time, see {@link WorldClock#skip(long, long, WarpUnit)}.
+     * @param worldTime The vanilla world time of the calling world, used to start the clock if it has never been stepped.
+     * @param amount The amount to jump by, below zero to rewind.
+     * @param unit The {@link WarpUnit} of the amount.
+     * @return The new vanilla world time.
+     */
+    public long skip(long worldTime, long amount, WarpUnit unit) {
+        if (this.worldTime == -1L) {
+            this.start(worldTime);
+        }
+        this.worldTime = this.clock.skip(this.worldTime, amount, unit);
+        return this.worldTime;
+    }
+
+    /**
+     * Gets the vanilla world time every world sharing this clock shows.
+     * @return The vanilla world time, -1 if the clock has never been stepped.
+     */
+    public long getWorldTime() {
+        return this.worldTime;
+    }
+
+    /**
+     * Gets the warped ticks the clock advanced by when it was last stepped.
+     * @return The warped ticks.
+     */
+    public long getSteppedTicks() {
+        return this.steppedTicks;
+    }
+
+    /**
+     * Sets the vanilla world time of every world sharing this clock, used when one of them had its time changed.
+     * @param worldTime The vanilla world time.
+     */
+    public void setWorldTime(long worldTime) {
+        this.clock.reset(worldTime);
+        this.worldTime = worldTime;
+    }
+
+    /**
+     * Gets the underlying {@link WorldClock}.
+     * @return The {@link WorldClock}.
+     */
+    public WorldClock getClock() {
+        return this.clock;
+    }
+
+    /**
+     * Gets whether players of every world sharing this clock need a time update packet in this server tick.
+     * @return True if a packet is due, false if not.
+     */
+    public boolean isTimePacketDue() {
+        return this.timePacketDue;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * This file is part of TimeWarp, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) InspireNXE <http://github.com/InspireNXE/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.inspirenxe.timewarp.engine;
+
+/**
+ * Decides when players need a time update packet by tracking the time their clients currently show.
+ * <p>Clients advance time on their own every tick while they are told the daylight cycle is on, otherwise they hold the time they
+ * were last sent. A packet is only needed once the world time differs from what clients show, when clients have to switch between
+ * the two or when the resync interval has elapsed.</p>
+ */
+public final class TimePacketPolicy {
+
+    private long lastTime = -1L;
+    private boolean lastPredictable;
+    private long ticksSincePacket;
+
+    /**
+     * Advances the policy by one server tick.
+     * @param worldTime The vanilla world time after this tick.
+     * @param predictable True if clients may advance time on their own, see {@link WorldClock#isClientPredictable()}.
+     * @param resyncInterval The maximum ticks between packets, zero or below to only send when clients are out of sync.
+     * @return True if a packet must be sent this tick, in which case it is assumed to be sent.
+     */
+    public boolean tick(long worldTime, boolean predictable, long resyncInterval) {
+        return this.tick(worldTime, predictable, resyncInterval, 0L);
+    }
+
+    /**
+     * Advances the policy by one server tick, holding back packets that would follow the last one too closely.
+     * <p>Used while time jumps every tick, such as when fast forwarding, as clients would otherwise need a packet every tick. Clients
+     * may show stale time until the interval elapses.</p>
+     * @param worldTime The vanilla world time after this tick.
+     * @param predictable True if clients may advance time on their own, see {@link WorldClock#isClientPredictable()}.
+     * @param resyncInterval The maximum ticks between packets, zero or below to only send when clients are out of sync.
+     * @param minInterval The minimum ticks between packets, zero or below to send as soon as clients are out of sync.
+     * @return True if a packet must be sent this tick, in which case it is assumed to be sent.
+     */
+    public boolean tick(long worldTime, boolean predictable, long resyncInterval, long minInterval) {
+        this.ticksSincePacket++;
+        if (this.ticksSincePacket < minInterval) {
+            return false;
+        }
+        final long clientTime = this.lastPredictable ? this.lastTime + this.ticksSincePacket : this.lastTime;
+        if (worldTime != clientTime || predictable != this.lastPredictable || (resyncInterval > 0 && this.ticksSincePacket >= resyncInterval)) {
+            this.lastTime = worldTime;
+            this.lastPredictable = predictable;
+            this.ticksSincePacket = 0L;
+            return true;
+        }
+        return false;
+    }
+}
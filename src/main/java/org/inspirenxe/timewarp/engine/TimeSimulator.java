@@ -0,0 +1,226 @@
+/*
+ * This file is part of TimeWarp, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) InspireNXE <http://github.com/InspireNXE/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.inspirenxe.timewarp.engine;
+
+import org.inspirenxe.timewarp.daypart.DayPartType;
+import org.inspirenxe.timewarp.world.WorldTimeline;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs {@link WorldClock}s without a server to check a schedule offline.
+ * <p>Usage: TimeSimulator &lt;morning&gt; &lt;day&gt; &lt;dusk&gt; &lt;evening&gt; &lt;night&gt; [days] [worlds]</p>
+ * <p>Every world steps the same engine pieces a warped world does each tick: its clock, its {@link TimePacketPolicy} and its
+ * {@link WarpScheduler}.</p>
+ */
+public final class TimeSimulator {
+
+    /**
+     * The warped ticks between runs of the repeating task every simulated world schedules.
+     */
+    private static final long TASK_INTERVAL = 97L;
+
+    private final WorldTimeline timeline;
+    private final int worldCount;
+    private final long resyncInterval;
+
+    /**
+     * Creates a simulator.
+     * @param timeline The {@link WorldTimeline} every world steps through.
+     * @param worldCount The amount of worlds to simulate, each starts at a different time of day.
+     * @param resyncInterval The resync interval passed to each {@link TimePacketPolicy}.
+     */
+    public TimeSimulator(WorldTimeline timeline, int worldCount, long resyncInterval) {
+        this.timeline = timeline;
+        this.worldCount = worldCount;
+        this.resyncInterval = resyncInterval;
+    }
+
+    /**
+     * Simulates every world for an amount of server ticks.
+     * @param ticks The server ticks to simulate.
+     * @return The {@link Result}.
+     */
+    public Result run(long ticks) {
+        final WorldClock[] clocks = new WorldClock[this.worldCount];
+        final TimePacketPolicy[] policies = new TimePacketPolicy[this.worldCount];
+        final WarpScheduler[] schedulers = new WarpScheduler[this.worldCount];
+        final long[] tasksRun = new long[1];
+        final long[] worldTimes = new long[this.worldCount];
+        final long[] dayStarts = new long[this.worldCount];
+        for (int i = 0; i < this.worldCount; i++) {
+            clocks[i] = new WorldClock(this.timeline);
+            policies[i] = new TimePacketPolicy();
+            schedulers[i] = new WarpScheduler(e -> {
+                throw e;
+            });
+            schedulers[i].schedule(TASK_INTERVAL, TASK_INTERVAL, () -> tasksRun[0]++);
+            worldTimes[i] = (i * 997L) % DayPartType.DEFAULT_DAY_LENGTH;
+            dayStarts[i] = -1L;
+        }
+
+        long days = 0;
+        long totalDayLength = 0;
+        long shortestDay = Long.MAX_VALUE;
+        long longestDay = 0;
+        long packets = 0;
+        final long start = System.nanoTime();
+        for (long tick = 0; tick < ticks; tick++) {
+            for (int i = 0; i < this.worldCount; i++) {
+                final long worldTime = worldTimes[i];
+                final long newWorldTime = clocks[i].tick(worldTime);
+                worldTimes[i] = newWorldTime;
+                if (policies[i].tick(newWorldTime, clocks[i].isClientPredictable(), this.resyncInterval)) {
+                    packets++;
+                }
+                schedulers[i].advance(1L);
+
+                // Measure full days only, the first day of every world is partial
+                if (newWorldTime / DayPartType.DEFAULT_DAY_LENGTH != worldTime / DayPartType.DEFAULT_DAY_LENGTH) {
+                    if (dayStarts[i] != -1L) {
+                        final long dayLength = tick - dayStarts[i];
+                        days++;
+                        totalDayLength += dayLength;
+                        shortestDay = Math.min(shortestDay, dayLength);
+                        longestDay = Math.max(longestDay, dayLength);
+                    }
+                    dayStarts[i] = tick;
+                }
+            }
+        }
+        final long nanos = System.nanoTime() - start;
+
+        long skipped = 0;
+        for (WorldClock clock : clocks) {
+            skipped += clock.getSkippedDayParts();
+        }
+        return new Result(this.timeline.getDayLength(), ticks * this.worldCount, nanos, days, days == 0 ? 0 : totalDayLength / (double) days,
+                days == 0 ? 0 : shortestDay, longestDay, skipped, packets, tasksRun[0]);
+    }
+
+    public static void main(String[] args) {
+        if (args.length < DayPartType.values().length) {
+            System.out.println("Usage: TimeSimulator <morning> <day> <dusk> <evening> <night> [days] [worlds]");
+            return;
+        }
+        final long[] lengths = new long[DayPartType.values().length];
+        for (DayPartType type : DayPartType.values()) {
+            lengths[type.ordinal()] = Long.parseLong(args[type.ordinal()]);
+        }
+        final WorldTimeline timeline = new WorldTimeline(lengths);
+        final long days = args.length > lengths.length ? Long.parseLong(args[lengths.length]) : 100L;
+        final int worlds = args.length > lengths.length + 1 ? Integer.parseInt(args[lengths.length + 1]) : 1;
+        final TimeSimulator simulator = new TimeSimulator(timeline, worlds, 20L);
+        final long ticks = days * Math.max(timeline.getDayLength(), 1);
+        System.out.println(simulator.run(ticks));
+    }
+
+    /**
+     * The outcome of a simulation.
+     */
+    public static final class Result {
+
+        /**
+         * The day length configured, in server ticks.
+         */
+        public final long expectedDayLength;
+        /**
+         * The world ticks simulated, that is server ticks times worlds.
+         */
+        public final long worldTicks;
+        /**
+         * The wall clock time the simulation took.
+         */
+        public final long nanos;
+        /**
+         * The full days measured across all worlds.
+         */
+        public final long days;
+        /**
+         * The average measured day length, in server ticks.
+         */
+        public final double averageDayLength;
+        /**
+         * The shortest measured day length, in server ticks.
+         */
+        public final long shortestDayLength;
+        /**
+         * The longest measured day length, in server ticks.
+         */
+        public final long longestDayLength;
+        /**
+         * The dayparts skipped across all worlds.
+         */
+        public final long skippedDayParts;
+        /**
+         * The time packets broadcast across all worlds.
+         */
+        public final long packets;
+        /**
+         * The runs of the repeating task scheduled in every world.
+         */
+        public final long tasksRun;
+
+        Result(long expectedDayLength, long worldTicks, long nanos, long days, double averageDayLength, long shortestDayLength,
+                long longestDayLength, long skippedDayParts, long packets, long tasksRun) {
+            this.expectedDayLength = expectedDayLength;
+            this.worldTicks = worldTicks;
+            this.nanos = nanos;
+            this.days = days;
+            this.averageDayLength = averageDayLength;
+            this.shortestDayLength = shortestDayLength;
+            this.longestDayLength = longestDayLength;
+            this.skippedDayParts = skippedDayParts;
+            this.packets = packets;
+            this.tasksRun = tasksRun;
+        }
+
+        /**
+         * Gets the average drift of a day from the configured day length.
+         * @return The drift in server ticks per day, positive if days last longer than configured.
+         */
+        public double getDriftPerDay() {
+            return this.days == 0 ? 0 : this.averageDayLength - this.expectedDayLength;
+        }
+
+        /**
+         * Gets the world ticks simulated per second of wall clock time.
+         * @return The world ticks per second.
+         */
+        public double getWorldTicksPerSecond() {
+            return this.worldTicks / (this.nanos / (double) TimeUnit.SECONDS.toNanos(1));
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Simulated %,d world ticks in %,d ms (%,.0f ticks/s)%n"
+                            + "Days measured: %,d, configured length: %,d, average: %,.2f (drift %+,.2f), shortest: %,d, longest: %,d%n"
+                            + "Dayparts skipped: %,d, time packets: %,d, tasks run: %,d",
+                    this.worldTicks, TimeUnit.NANOSECONDS.toMillis(this.nanos), this.getWorldTicksPerSecond(), this.days,
+                    this.expectedDayLength, this.averageDayLength, this.getDriftPerDay(), this.shortestDayLength, this.longestDayLength,
+                    this.skippedDayParts, this.packets, this.tasksRun);
+        }
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * This file is part of TimeWarp, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) InspireNXE <http://github.com/InspireNXE/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.inspirenxe.timewarp.engine;
+
+import com.google.common.collect.Lists;
+import org.inspirenxe.timewarp.daypart.DayPartType;
+
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * Runs tasks after an amount of warped ticks or at the start of a daypart in a single world, so they keep in step with stretched or
+ * skipped dayparts where real ticks would drift.
+ * <p>Delayed tasks wait in a priority queue ordered by the warped tick they are due at. Advancing only peeks at the head while
+ * nothing is due, so a tick costs constant time plus the tasks that run however many are waiting and however far the clock jumps.
+ * Daypart tasks are bucketed by {@link DayPartType} and only touched when that daypart starts.</p>
+ * <p>Not thread safe, schedule and cancel tasks on the thread that ticks the world.</p>
+ */
+public final class WarpScheduler {
+
+    private static final DayPartType[] TYPES = DayPartType.values();
+
+    private final PriorityQueue<Task> queue = new PriorityQueue<>();
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private final List<Task>[] dayPartTasks = new List[TYPES.length];
+    private final Consumer<RuntimeException> errorHandler;
+    private long warpedTicks;
+    private long sequence;
+    private int taskCount;
+    private int cancelledInQueue;
+
+    /**
+     * Creates a scheduler.
+     * @param errorHandler Receives exceptions thrown by tasks, the remaining tasks still run.
+     */
+    public WarpScheduler(Consumer<RuntimeException> errorHandler) {
+        this.errorHandler = errorHandler;
+        for (int index = 0; index < TYPES.length; index++) {
+            this.dayPartTasks[index] = Lists.newArrayList();
+        }
+    }
+
+    /**
+     * Runs a task once after an amount of warped ticks.
+     * @param delay The warped ticks to wait, at least one.
+     * @param action The action to run.
+     * @return The {@link Task}.
+     */
+    public Task schedule(long delay, Runnable action) {
+        return this.schedule(delay, 0L, action);
+    }
+
+    /**
+     * Runs a task after an amount of warped ticks and then repeatedly. Intervals that pass entirely within a single jump of the clock
+     * run the task once rather than once per interval.
+     * @param delay The warped ticks to wait before the first run, at least one.
+     * @param interval The warped ticks between runs, zero to only run once.
+     * @param action The action to run.
+     * @return The {@link Task}.
+     */
+    public Task schedule(long delay, long interval, Runnable action) {
+        if (delay < 1L) {
+            throw new IllegalArgumentException("Delay [" + delay + "] must be at least 1.");
+        }
+        if (interval < 0L) {
+            throw new IllegalArgumentException("Interval [" + interval + "] must not be negative.");
+        }
+        final Task task = new Task(this, action, this.warpedTicks + delay, interval, null, this.sequence++);
+        this.queue.add(task);
+        this.taskCount++;
+        return task;
+    }
+
+    /**
+     * Runs a task the next time a daypart starts in a warped world, dayparts that are skipped never start.
+     * @param type The {@link DayPartType}.
+     * @param repeat True to run the task every time the daypart starts, false to only run it once.
+     * @param action The action to run.
+     * @return The {@link Task}.
+     */
+    public Task scheduleAtDayPart(DayPartType type, boolean repeat, Runnable action) {
+        final Task task = new Task(this, action, -1L, repeat ? 1L : 0L, type, this.sequence++);
+        this.dayPartTasks[type.ordinal()].add(task);
+        this.taskCount++;
+        return task;
+    }
+
+    /**
+     * Gets the warped ticks this scheduler has advanced by.
+     * @return The warped ticks.
+     */
+    public long getWarpedTicks() {
+        return this.warpedTicks;
+    }
+
+    /**
+     * Gets the amount of tasks waiting to run.
+     * @return The amount of tasks.
+     */
+    public int getTaskCount() {
+        return this.taskCount;
+    }
+
+    /**
+     * Advances by an amount of warped ticks and runs every task that became due, in the order they are due.
+     * @param ticks The warped ticks to advance by, zero or below to do nothing.
+     */
+    public void advance(long ticks) {
+        if (ticks <= 0L) {
+            return;
+        }
+        this.warpedTicks += ticks;
+        Task task;
+        while ((task = this.queue.peek()) != null && task.deadline <= this.warpedTicks) {
+            this.queue.poll();
+            if (task.cancelled) {
+                this.cancelledInQueue--;
+                continue;
+            }
+            if (task.interval == 0L) {
+                task.cancelled = true;
+                this.taskCount--;
+            } else {
+                // Continue from the next interval after now, skipping the ones that passed within this jump
+                task.deadline = this.warpedTicks + task.interval - (this.warpedTicks - task.deadline) % task.interval;
+                task.order = this.sequence++;
+                this.queue.add(task);
+            }
+            this.run(task);
+        }
+    }
+
+    /**
+     * Runs every task waiting for a daypart to start.
+     * @param type The {@link DayPartType} that started.
+     */
+    public void onDayPart(DayPartType type) {
+        final List<Task> tasks = this.dayPartTasks[type.ordinal()];
+        if (tasks.isEmpty()) {
+            return;
+        }
+        // Swap the bucket first so tasks may schedule or cancel daypart tasks while running
+        this.dayPartTasks[type.ordinal()] = Lists.newArrayList();
+        for (Task task : tasks) {
+            if (task.cancelled) {
+                continue;
+            }
+            if (task.interval == 0L) {
+                task.cancelled = true;
+                this.taskCount--;
+            } else {
+                this.dayPartTasks[type.ordinal()].add(task);
+            }
+            this.run(task);
+        }
+    }
+
+    private void onCancel(Task task) {
+        this.taskCount--;
+        if (task.dayPartType != null) {
+            this.dayPartTasks[task.dayPartType.ordinal()].remove(task);
+            return;
+        }
+        // Cancelled tasks stay queued until they are due, purge them once they make up most of the queue so they can not pile up
+        this.cancelledInQueue++;
+        if (this.cancelledInQueue > 64 && this.cancelledInQueue > this.queue.size() / 2) {
+            this.queue.removeIf(queued -> queued.cancelled);
+            this.cancelledInQueue = 0;
+        }
+    }
+
+    private void run(Task task) {
+        try {
+            task.action.run();
+        } catch (RuntimeException e) {
+            this.errorHandler.accept(e);
+        }
+    }
+
+    /**
+     * A task waiting in a {@link WarpScheduler}.
+     */
+    public static final class Task implements Comparable<Task> {
+
+        private final WarpScheduler scheduler;
+        private final Runnable action;
+        private final long interval;
+        private final DayPartType dayPartType;
+        private long deadline;
+        private long order;
+        private boolean cancelled;
+
+        Task(WarpScheduler scheduler, Runnable action, long deadline, long interval, DayPartType dayPartType, long order) {
+            this.scheduler = scheduler;
+            this.action = action;
+            this.deadline = deadline;
+            this.interval = interval;
+            this.dayPartType = dayPartType;
+            this.order = order;
+        }
+
+        /**
+         * Gets the warped tick of the scheduler this task runs at next, see {@link WarpScheduler#getWarpedTicks()}.
+         * @return The warped tick, -1 if the task waits for a daypart instead.
+         */
+        public long getDeadline() {
+            return this.dayPartType == null ? this.deadline : -1L;
+        }
+
+        /**
+         * Gets the {@link DayPartType} this task waits for.
+         * @return The {@link DayPartType}, null if the task waits for an amount of warped ticks instead.
+         */
+        public DayPartType getDayPartType() {
+            return this.dayPartType;
+        }
+
+        /**
+         * Determines if the task repeats.
+         * @return True if it repeats, false if it only runs once.
+         */
+        public boolean isRepeating() {
+            return this.interval != 0L;
+        }
+
+        /**
+         * Determines if the task was cancelled or has run for the last time.
+         * @return True if it will not run again, false if not.
+         */
+        public boolean isCancelled() {
+            return this.cancelled;
+        }
+
+        /**
+         * Cancels the task.
+         * @return True if the task was waiting to run, false if it was already cancelled or has run for the last time.
+         */
+        public boolean cancel() {
+            if (this.cancelled) {
+                return false;
+            }
+            this.cancelled = true;
+            this.scheduler.onCancel(this);
+            return true;
+        }
+
+        @Override
+        public int compareTo(Task other) {
+            final int compare = Long.compare(this.deadline, other.deadline);
+            return compare != 0 ? compare : Long.compare(this.order, other.order);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * This file is part of TimeWarp, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) InspireNXE <http://github.com/InspireNXE/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.inspirenxe.timewarp.engine;
+
+import org.inspirenxe.timewarp.daypart.DayPartType;
+
+/**
+ * The progress of a {@link WorldClock} at a vanilla world time, kept across restarts so stretched dayparts neither jump nor repeat a
+ * step when the server starts again.
+ */
+public final class WarpState {
+
+    /**
+     * The vanilla world time the state was captured at, it is only restored if the world is still at this time.
+     */
+    public final long worldTime;
+    /**
+     * The cycle the clock was in, see {@link org.inspirenxe.timewarp.world.WarpSchedule}.
+     */
+    public final long cycle;
+    /**
+     * The {@link DayPartType} the clock was in, null if it had not ticked yet.
+     */
+    public final DayPartType dayPartType;
+    /**
+     * The progress towards the next vanilla tick, see {@link WorldClock#getRemainder()}.
+     */
+    public final long remainder;
+
+    public WarpState(long worldTime, long cycle, DayPartType dayPartType, long remainder) {
+        this.worldTime = worldTime;
+        this.cycle = cycle;
+        this.dayPartType = dayPartType;
+        this.remainder = remainder;
+    }
+
+    @Override
+    public String toString() {
+        return "WarpState{" +
+                "worldTime=" + worldTime +
+                ", cycle=" + cycle +
+                ", dayPartType=" + dayPartType +
+                ", remainder=" + remainder +
+                '}';
+    }
+}
@@ -0,0 +1,519 @@
+/*
+ * This file is part of TimeWarp, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) InspireNXE <http://github.com/InspireNXE/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.inspirenxe.timewarp.engine;
+
+import org.inspirenxe.timewarp.daypart.DayPartType;
+import org.inspirenxe.timewarp.world.DaySchedule;
+import org.inspirenxe.timewarp.world.WarpSchedule;
+import org.inspirenxe.timewarp.world.WorldCalendar;
+import org.inspirenxe.timewarp.world.WorldTimeline;
+
+/**
+ * Steps the vanilla time of a single world through a {@link WorldTimeline} or a {@link WorldCalendar}.
+ * <p>This has no dependency on a running server, the caller reads the world time, passes it to {@link WorldClock#tick(long)} and
+ * writes the returned time back.</p>
+ * <p>Time is stepped with integer fixed-point arithmetic. Every server tick adds the vanilla length of the current daypart to a
+ * remainder and the world time advances whenever the remainder reaches the custom length. A daypart therefore lasts exactly its
+ * custom length in server ticks, its vanilla ticks are spread as evenly as possible and no rounding error carries over.</p>
+ * <p>Calendars are read through a {@link WorldCalendar.Cursor} that is moved once the cycle rolls over, which keeps every tick
+ * constant time and free of allocations. Jumps by warped ticks, dayparts or days go through the {@link WarpSchedule} of the timeline
+ * or calendar and are constant time as well.</p>
+ */
+public final class WorldClock {
+
+    private static final DayPartType[] TYPES = DayPartType.values();
+
+    private DaySchedule schedule;
+    private WarpSchedule warpSchedule;
+    private WorldTimeline timeline;
+    private WorldCalendar.Cursor cursor;
+    private long cycle = -1L;
+    private DayPartType dayPartType;
+    private long remainder;
+    private long skippedDayParts;
+
+    /**
+     * Creates a clock without a schedule, {@link WorldClock#setTimeline(WorldTimeline, long)} or
+     * {@link WorldClock#setCalendar(WorldCalendar, long)} must be called before it ticks.
+     */
+    public WorldClock() {
+    }
+
+    public WorldClock(WorldTimeline timeline) {
+        this.schedule = timeline;
+        this.warpSchedule = timeline;
+        this.timeline = timeline;
+    }
+
+    /**
+     * Advances the clock by one server tick.
+     * @param worldTime The current vanilla world time, not below zero.
+     * @return The new vanilla world time.
+     */
+    public long tick(long worldTime) {
+        if (this.cursor != null) {
+            final long cycle = WarpSchedule.getCycle(worldTime);
+            if (cycle != this.cycle) {
+                this.moveCursor(cycle);
+            }
+        }
+
+        final long currentTime = worldTime % DayPartType.DEFAULT_DAY_LENGTH;
+        final DayPartType currentType = this.schedule.getType(currentTime);
+
+        if (this.schedule.isSkipped(currentType)) {
+            // Skip to the start of the next daypart
+            this.dayPartType = this.schedule.getNextType(currentType);
+            this.remainder = 0L;
+            this.skippedDayParts++;
+            return worldTime + this.schedule.getSkipDistance(currentTime);
+        }
+
+        if (this.dayPartType != currentType) {
+            // Time was changed by something else, start the daypart from a clean remainder
+            this.dayPartType = currentType;
+            this.remainder = 0L;
+        }
+
+        this.remainder += currentType.defaultLength;
+        final long length = this.schedule.getLength(currentType);
+        if (this.remainder < length) {
+            return worldTime;
+        }
+
+        // Tick the world time up by one, carrying what is left of the remainder
+        this.remainder -= length;
+        final long nextTime = (currentTime + 1) % DayPartType.DEFAULT_DAY_LENGTH;
+        final DayPartType nextType = this.schedule.getType(nextTime);
+        if (nextType == currentType) {
+            return worldTime + 1;
+        }
+
+        this.remainder = 0L;
+        if (this.schedule.isSkipped(nextType)) {
+            // Skip over the daypart in the same tick so it takes no server ticks at all
+            this.dayPartType = this.schedule.getNextType(nextType);
+            this.skippedDayParts++;
+            return worldTime + 1 + this.schedule.getSkipDistance(nextTime);
+        }
+        this.dayPartType = nextType;
+        return worldTime + 1;
+    }
+
+    private void moveCursor(long cycle) {
+        final long previousLength = this.dayPartType == null ? 0L : this.schedule.getLength(this.dayPartType);
+        this.cursor.moveTo(cycle);
+        this.cycle = cycle;
+        // Keep the progress through the current vanilla tick when the length of the daypart changes with the day
+        if (previousLength != 0L) {
+            this.remainder = this.remainder * this.schedule.getLength(this.dayPartType) / previousLength;
+        }
+    }
+
+    /**
+     * Gets the {@link WorldTimeline} this clock steps through.
+     * @return The {@link WorldTimeline}, null if the clock steps through a {@link WorldCalendar}.
+     */
+    public WorldTimeline getTimeline() {
+        return this.timeline;
+    }
+
+    /**
+     * Gets the {@link WorldCalendar} this clock steps through.
+     * @return The {@link WorldCalendar}, null if the clock steps through a {@link WorldTimeline}.
+     */
+    public WorldCalendar getCalendar() {
+        return this.cursor == null ? null : this.cursor.getCalendar();
+    }
+
+    /**
+     * Gets the {@link DaySchedule} of the day the clock is currently in.
+     * @return The {@link DaySchedule}.
+     */
+    public DaySchedule getSchedule() {
+        return this.schedule;
+    }
+
+    /**
+     * Sets the {@link WorldTimeline} to step through, keeping the progress through the current vanilla tick.
+     * @param timeline The {@link WorldTimeline}.
+     * @param worldTime The current vanilla world time.
+     */
+    public void setTimeline(WorldTimeline timeline, long worldTime) {
+        this.setSchedule(timeline, worldTime);
+        this.warpSchedule = timeline;
+        this.timeline = timeline;
+        this.cursor = null;
+    }
+
+    /**
+     * Sets the {@link WorldCalendar} to step through, keeping the progress through the current vanilla tick.
+     * @param calendar The {@link WorldCalendar}.
+     * @param worldTime The current vanilla world time.
+     */
+    public void setCalendar(WorldCalendar calendar, long worldTime) {
+        final WorldCalendar.Cursor cursor = calendar.newCursor();
+        this.cycle = WarpSchedule.getCycle(worldTime);
+        cursor.moveTo(this.cycle);
+        this.setSchedule(cursor, worldTime);
+        this.warpSchedule = calendar;
+        this.timeline = null;
+        this.cursor = cursor;
+    }
+
+    private void setSchedule(DaySchedule schedule, long worldTime) {
+        final DayPartType type = schedule.getType(worldTime % DayPartType.DEFAULT_DAY_LENGTH);
+        if (this.schedule != null && this.dayPartType == type && this.schedule.getLength(type) != 0) {
+            this.remainder = this.remainder * schedule.getLength(type) / this.schedule.getLength(type);
+        } else {
+            this.remainder = 0L;
+        }
+        this.schedule = schedule;
+        this.dayPartType = type;
+    }
+
+    /**
+     * Restarts the clock from a world time that was changed by something else, dropping the progress through the current vanilla
+     * tick.
+     * @param worldTime The new vanilla world time.
+     */
+    public void reset(long worldTime) {
+        if (this.cursor != null) {
+            this.cycle = WarpSchedule.getCycle(worldTime);
+            this.cursor.moveTo(this.cycle);
+        }
+        this.dayPartType = this.schedule.getType(worldTime % DayPartType.DEFAULT_DAY_LENGTH);
+        this.remainder = 0L;
+    }
+
+    /**
+     * Advances the clock by an amount of server ticks in a single step, see {@link LagCompensator}.
+     * @param worldTime The current vanilla world time, not below zero.
+     * @param ticks The server ticks to advance by, not below zero.
+     * @return The new vanilla world time.
+     */
+    public long advance(long worldTime, long ticks) {
+        return ticks == 1L ? this.tick(worldTime) : this.skipWarpedTicks(worldTime, ticks);
+    }
+
+    /**
+     * Captures the progress of the clock at a vanilla world time, see {@link WorldClock#restore(WarpState)}.
+     * @param worldTime The current vanilla world time.
+     * @return The {@link WarpState}.
+     */
+    public WarpState capture(long worldTime) {
+        return new WarpState(worldTime, WarpSchedule.getCycle(worldTime), this.dayPartType, this.remainder);
+    }
+
+    /**
+     * Restarts the clock from a captured {@link WarpState}, keeping the progress through the vanilla tick it was captured in.
+     * @param state The {@link WarpState}.
+     * @return True if the progress was restored, false if it no longer fits the schedule and the clock started from a clean remainder.
+     */
+    public boolean restore(WarpState state) {
+        this.reset(state.worldTime);
+        if (state.dayPartType != this.dayPartType || state.cycle != WarpSchedule.getCycle(state.worldTime) || state.remainder < 0L
+                || state.remainder >= this.schedule.getLength(this.dayPartType)) {
+            return false;
+        }
+        this.remainder = state.remainder;
+        return true;
+    }
+
+    /**
+     * Jumps by an amount of time in constant time.
+     * @param worldTime The current vanilla world time.
+     * @param amount The amount to jump by, below zero to rewind.
+     * @param unit The {@link WarpUnit} of the amount.
+     * @return The new vanilla world time, clamped to zero when rewinding past the creation of the world.
+     */
+    public long skip(long worldTime, long amount, WarpUnit unit) {
+        switch (unit) {
+            case TICKS:
+                return this.skipWarpedTicks(worldTime, amount);
+            case DAYPARTS:
+                return this.skipDayParts(worldTime, amount);
+            default:
+                return this.skipDays(worldTime, amount);
+        }
+    }
+
+    /**
+     * Jumps by an amount of warped time in constant time, landing exactly where ticking the clock that many times would.
+     * @param worldTime The current vanilla world time.
+     * @param ticks The warped ticks to jump by, below zero to rewind.
+     * @return The new vanilla world time, clamped to zero when rewinding past the creation of the world.
+     */
+    public long skipWarpedTicks(long worldTime, long ticks) {
+        return this.setWarpedTime(this.getWarpedTime(worldTime) + ticks);
+    }
+
+    /**
+     * Gets the warped time of a vanilla world time in constant time, that is the server ticks the clock takes to reach it from the start
+     * of cycle 0, see {@link WarpSchedule}.
+     * @param worldTime The vanilla world time, counting the progress through the current vanilla tick if the clock is at that time.
+     * @return The warped time.
+     */
+    public long getWarpedTime(long worldTime) {
+        final long cycle = WarpSchedule.getCycle(worldTime);
+        final DayPartType type = DayPartType.fromTime(Math.floorMod(worldTime, DayPartType.DEFAULT_DAY_LENGTH));
+        long warpedTime = this.warpSchedule.getWarpedStart(cycle);
+        for (int index = 0; index < type.ordinal(); index++) {
+            warpedTime += this.warpSchedule.getLength(cycle, TYPES[index]);
+        }
+        return warpedTime + this.getDayPartElapsed(worldTime);
+    }
+
+    /**
+     * Gets the warped ticks elapsed since the start of the daypart a vanilla world time is in.
+     * @param worldTime The vanilla world time, counting the progress through the current vanilla tick if the clock is at that time.
+     * @return The warped ticks, zero if the daypart is skipped.
+     */
+    public long getDayPartElapsed(long worldTime) {
+        final long cycle = WarpSchedule.getCycle(worldTime);
+        final DayPartType type = DayPartType.fromTime(Math.floorMod(worldTime, DayPartType.DEFAULT_DAY_LENGTH));
+        final long length = this.warpSchedule.getLength(cycle, type);
+        if (length == 0L) {
+            return 0L;
+        }
+        final long remainder = type == this.dayPartType ? this.remainder : 0L;
+        return ((worldTime - WarpSchedule.getVanillaStart(cycle, type)) * length + remainder) / type.defaultLength;
+    }
+
+    /**
+     * Gets the warped length of the daypart a vanilla world time is in.
+     * @param worldTime The vanilla world time.
+     * @return The warped length, zero if the daypart is skipped.
+     */
+    public long getDayPartLength(long worldTime) {
+        return this.warpSchedule.getLength(WarpSchedule.getCycle(worldTime),
+                DayPartType.fromTime(Math.floorMod(worldTime, DayPartType.DEFAULT_DAY_LENGTH)));
+    }
+
+    private long setWarpedTime(long warpedTime) {
+        final long cycle = this.warpSchedule.getCycleAt(warpedTime);
+        long offset = warpedTime - this.warpSchedule.getWarpedStart(cycle);
+        DayPartType type = TYPES[0];
+        long length = 0L;
+        for (DayPartType candidate : TYPES) {
+            type = candidate;
+            length = this.warpSchedule.getLength(cycle, candidate);
+            if (offset < length) {
+                break;
+            }
+            offset -= length;
+        }
+
+        // Invert the fixed-point step, the vanilla ticks elapsed in the daypart are floor(offset * vanilla length / custom length)
+        final long progress = offset * type.defaultLength;
+        final long elapsed = progress / length;
+        return this.moveTo(cycle, type, WarpSchedule.getVanillaStart(cycle, type) + elapsed, progress - elapsed * length);
+    }
+
+    /**
+     * Jumps to the start of a daypart an amount of dayparts away in constant time, skipped dayparts are not counted.
+     * @param worldTime The current vanilla world time.
+     * @param dayParts The dayparts to jump by, below zero to rewind and zero to restart the current daypart.
+     * @return The new vanilla world time, clamped to zero when rewinding past the creation of the world.
+     */
+    public long skipDayParts(long worldTime, long dayParts) {
+        final long cycle = WarpSchedule.getCycle(worldTime);
+        final DayPartType type = DayPartType.fromTime(Math.floorMod(worldTime, DayPartType.DEFAULT_DAY_LENGTH));
+        long dayPart = this.warpSchedule.getDayPartStart(cycle);
+        for (int index = 0; index < type.ordinal(); index++) {
+            if (this.warpSchedule.getLength(cycle, TYPES[index]) != 0L) {
+                dayPart++;
+            }
+        }
+
+        final long targetDayPart = dayPart + dayParts;
+        final long targetCycle = this.warpSchedule.getCycleAtDayPart(targetDayPart);
+        long remaining = targetDayPart - this.warpSchedule.getDayPartStart(targetCycle);
+        DayPartType targetType = TYPES[0];
+        for (DayPartType candidate : TYPES) {
+            if (this.warpSchedule.getLength(targetCycle, candidate) == 0L) {
+                continue;
+            }
+            targetType = candidate;
+            if (remaining-- == 0L) {
+                break;
+            }
+        }
+        return this.moveTo(targetCycle, targetType, WarpSchedule.getVanillaStart(targetCycle, targetType), 0L);
+    }
+
+    /**
+     * Gets the dayparts {@link WorldClock#skipDayParts(long, long)} has to jump by to reach the next start of a daypart. If the daypart
+     * is skipped in the cycle it would start in, the first daypart that is not skipped after it is reached instead.
+     * @param worldTime The current vanilla world time.
+     * @param type The {@link DayPartType} to reach.
+     * @return The dayparts to jump by.
+     */
+    public long getDayPartsUntil(long worldTime, DayPartType type) {
+        long cycle = WarpSchedule.getCycle(worldTime);
+        int index = DayPartType.fromTime(Math.floorMod(worldTime, DayPartType.DEFAULT_DAY_LENGTH)).ordinal();
+        boolean reached = false;
+        // A skipped daypart counts as the start of the next daypart that is not skipped, see skipDayParts
+        long dayParts = this.warpSchedule.getLength(cycle, TYPES[index]) == 0L ? -1L : 0L;
+        // Every cycle has a daypart that is not skipped, so a few cycles always find one
+        for (int step = 0; step < TYPES.length * 4; step++) {
+            if (++index == TYPES.length) {
+                index = 0;
+                cycle++;
+            }
+            reached |= TYPES[index] == type;
+            if (this.warpSchedule.getLength(cycle, TYPES[index]) != 0L) {
+                dayParts++;
+                if (reached) {
+                    break;
+                }
+            }
+        }
+        return dayParts;
+    }
+
+    /**
+     * Gets the warped ticks until the next start of a daypart. If the daypart is skipped in the cycle it would start in, the ticks until
+     * the first daypart that is not skipped after it are returned instead, see {@link WorldClock#getDayPartsUntil(long, DayPartType)}.
+     * @param worldTime The current vanilla world time.
+     * @param type The {@link DayPartType} to reach.
+     * @return The warped ticks.
+     */
+    public long getWarpedTicksUntil(long worldTime, DayPartType type) {
+        long cycle = WarpSchedule.getCycle(worldTime);
+        int index = DayPartType.fromTime(Math.floorMod(worldTime, DayPartType.DEFAULT_DAY_LENGTH)).ordinal();
+        boolean reached = false;
+        long ticks = this.getDayPartLength(worldTime) - this.getDayPartElapsed(worldTime);
+        for (int step = 0; step < TYPES.length * 4; step++) {
+            if (++index == TYPES.length) {
+                index = 0;
+                cycle++;
+            }
+            reached |= TYPES[index] == type;
+            final long length = this.warpSchedule.getLength(cycle, TYPES[index]);
+            if (reached && length != 0L) {
+                break;
+            }
+            ticks += length;
+        }
+        return ticks;
+    }
+
+    /**
+     * Jumps by an amount of days in constant time, keeping the time of day and the progress through the current vanilla tick.
+     * @param worldTime The current vanilla world time.
+     * @param days The days to jump by, below zero to rewind.
+     * @return The new vanilla world time, clamped to zero when rewinding past the creation of the world.
+     */
+    public long skipDays(long worldTime, long days) {
+        final long targetTime = worldTime + days * DayPartType.DEFAULT_DAY_LENGTH;
+        final DayPartType type = DayPartType.fromTime(Math.floorMod(targetTime, DayPartType.DEFAULT_DAY_LENGTH));
+        final long cycle = WarpSchedule.getCycle(targetTime);
+        long remainder = 0L;
+        if (type == this.dayPartType && this.warpSchedule.getLength(cycle, type) != 0L) {
+            final long previousLength = this.schedule.getLength(type);
+            remainder = previousLength == 0L ? 0L : this.remainder * this.warpSchedule.getLength(cycle, type) / previousLength;
+        }
+        return this.moveTo(cycle, type, targetTime, remainder);
+    }
+
+    private long moveTo(long cycle, DayPartType type, long worldTime, long remainder) {
+        if (worldTime < 0L) {
+            this.reset(0L);
+            return 0L;
+        }
+        if (this.cursor != null) {
+            this.cycle = cycle;
+            this.cursor.moveTo(cycle);
+        }
+        this.dayPartType = type;
+        this.remainder = remainder;
+        return worldTime;
+    }
+
+    /**
+     * Gets the {@link DayPartType} at the time returned by the last {@link WorldClock#tick(long)}.
+     * @return The {@link DayPartType}, null if the clock has no timeline.
+     */
+    public DayPartType getDayPartType() {
+        return this.dayPartType;
+    }
+
+    /**
+     * Determines if clients would advance time at the same speed as this clock, that is the current daypart is not stretched.
+     * @return True if clients can predict time on their own, false if not.
+     */
+    public boolean isClientPredictable() {
+        return this.dayPartType != null && !this.schedule.isStretched(this.dayPartType);
+    }
+
+    /**
+     * Gets the fractional progress towards the next vanilla tick, in units of one vanilla tick divided by the custom daypart length.
+     * @return The remainder.
+     */
+    public long getRemainder() {
+        return this.remainder;
+    }
+
+    /**
+     * Sets the fractional progress towards the next vanilla tick.
+     * @param remainder The remainder, see {@link WorldClock#getRemainder()}.
+     */
+    public void setRemainder(long remainder) {
+        this.remainder = Math.max(0L, remainder);
+    }
+
+    /**
+     * Gets the ticks until the next world time increment
+     * @return The ticks until next increment
+     */
+    public long getTicksUntilNextIncrement() {
+        if (this.dayPartType == null) {
+            return 0L;
+        }
+        final long missing = this.schedule.getLength(this.dayPartType) - this.remainder;
+        return Math.max(0L, (missing + this.dayPartType.defaultLength - 1) / this.dayPartType.defaultLength);
+    }
+
+    /**
+     * Sets the ticks until the next world time increment
+     * @param ticksUntilIncrement Ticks until next increment
+     */
+    public void setTicksUntilNextIncrement(long ticksUntilIncrement) {
+        if (this.dayPartType == null) {
+            return;
+        }
+        this.remainder = Math.max(0L, this.schedule.getLength(this.dayPartType)
+                - Math.max(1L, ticksUntilIncrement) * this.dayPartType.defaultLength);
+    }
+
+    /**
+     * Gets the amount of dayparts skipped because their length is zero.
+     * @return The skipped dayparts.
+     */
+    public long getSkippedDayParts() {
+        return this.skippedDayParts;
+    }
+}
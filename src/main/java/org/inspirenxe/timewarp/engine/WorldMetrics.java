@@ -0,0 +1,149 @@
+/*
+ * This file is part of TimeWarp, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) InspireNXE <http://github.com/InspireNXE/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.inspirenxe.timewarp.engine;
+
+/**
+ * Counters and timers for the time warp of a single world.
+ * <p>Only the thread ticking the world records into this, other threads read a {@link Snapshot} taken on that thread. Callers skip
+ * recording entirely while metrics are disabled so the tick path does not pay for them.</p>
+ */
+public final class WorldMetrics {
+
+    private long ticks;
+    private long totalNanos;
+    private long maxNanos;
+    private long cacheRebuilds;
+    private long dayPartTransitions;
+    private long timePacketsSent;
+    private long skippedDayParts;
+
+    /**
+     * Records the time spent warping the world for one tick.
+     * @param nanos The time spent in nanoseconds.
+     */
+    public void recordTick(long nanos) {
+        this.ticks++;
+        this.totalNanos += nanos;
+        if (nanos > this.maxNanos) {
+            this.maxNanos = nanos;
+        }
+    }
+
+    /**
+     * Records that the cached schedule of the world was rebuilt.
+     */
+    public void recordCacheRebuild() {
+        this.cacheRebuilds++;
+    }
+
+    /**
+     * Records that the world entered a new daypart.
+     */
+    public void recordDayPartTransition() {
+        this.dayPartTransitions++;
+    }
+
+    /**
+     * Records time update packets sent to players.
+     * @param packets The amount of packets sent.
+     */
+    public void recordTimePacketsSent(int packets) {
+        this.timePacketsSent += packets;
+    }
+
+    /**
+     * Records dayparts skipped because their length is zero.
+     * @param dayParts The amount of dayparts skipped.
+     */
+    public void recordSkippedDayParts(long dayParts) {
+        this.skippedDayParts += dayParts;
+    }
+
+    /**
+     * Resets every counter and timer to zero.
+     */
+    public void reset() {
+        this.ticks = 0L;
+        this.totalNanos = 0L;
+        this.maxNanos = 0L;
+        this.cacheRebuilds = 0L;
+        this.dayPartTransitions = 0L;
+        this.timePacketsSent = 0L;
+        this.skippedDayParts = 0L;
+    }
+
+    /**
+     * Takes an immutable copy of the current values.
+     * @param enabled Whether metrics are currently being recorded.
+     * @return The {@link Snapshot}.
+     */
+    public Snapshot snapshot(boolean enabled) {
+        return new Snapshot(enabled, this.ticks, this.totalNanos, this.maxNanos, this.cacheRebuilds, this.dayPartTransitions,
+                this.timePacketsSent, this.skippedDayParts);
+    }
+
+    /**
+     * An immutable copy of {@link WorldMetrics}, safe to hand to any thread.
+     */
+    public static final class Snapshot {
+
+        public final boolean enabled;
+        public final long ticks;
+        public final long totalNanos;
+        public final long maxNanos;
+        public final long cacheRebuilds;
+        public final long dayPartTransitions;
+        public final long timePacketsSent;
+        public final long skippedDayParts;
+
+        Snapshot(boolean enabled, long ticks, long totalNanos, long maxNanos, long cacheRebuilds, long dayPartTransitions,
+                long timePacketsSent, long skippedDayParts) {
+            this.enabled = enabled;
+            this.ticks = ticks;
+            this.totalNanos = totalNanos;
+            this.maxNanos = maxNanos;
+            this.cacheRebuilds = cacheRebuilds;
+            this.dayPartTransitions = dayPartTransitions;
+            this.timePacketsSent = timePacketsSent;
+            this.skippedDayParts = skippedDayParts;
+        }
+
+        /**
+         * Gets the average time spent warping the world per recorded tick.
+         * @return The average in nanoseconds, zero if no tick was recorded.
+         */
+        public long getAverageNanos() {
+            return this.ticks == 0L ? 0L : this.totalNanos / this.ticks;
+        }
+
+        @Override
+        public String toString() {
+            return "WorldMetrics.Snapshot{enabled=" + this.enabled + ", ticks=" + this.ticks + ", averageNanos=" + this.getAverageNanos()
+                    + ", maxNanos=" + this.maxNanos + ", cacheRebuilds=" + this.cacheRebuilds + ", dayPartTransitions="
+                    + this.dayPartTransitions + ", timePacketsSent=" + this.timePacketsSent + ", skippedDayParts=" + this.skippedDayParts
+                    + "}";
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * This file is part of TimeWarp, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) InspireNXE <http://github.com/InspireNXE/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.inspirenxe.timewarp.event;
+
+import org.inspirenxe.timewarp.daypart.DayPart;
+import org.inspirenxe.timewarp.daypart.DayPartType;
+import org.spongepowered.api.event.cause.Cause;
+import org.spongepowered.api.event.impl.AbstractEvent;
+import org.spongepowered.api.world.World;
+
+import java.util.Optional;
+
+/**
+ * Posted on the main thread when the {@link DayPartType} of a warped world changes, whether time reached the next daypart or was set
+ * or skipped into another one.
+ * <p>Listen to this instead of polling the world time every tick.</p>
+ */
+public final class DayPartChangeEvent extends AbstractEvent {
+
+    private final Cause cause;
+    private final World world;
+    private final DayPartType previousType;
+    private final DayPartType type;
+    private final DayPart dayPart;
+    private final long worldTime;
+
+    public DayPartChangeEvent(Cause cause, World world, DayPartType previousType, DayPartType type, DayPart dayPart, long worldTime) {
+        this.cause = cause;
+        this.world = world;
+        this.previousType = previousType;
+        this.type = type;
+        this.dayPart = dayPart;
+        this.worldTime = worldTime;
+    }
+
+    @Override
+    public Cause getCause() {
+        return this.cause;
+    }
+
+    /**
+     * Gets the {@link World} whose daypart changed.
+     * @return The {@link World}.
+     */
+    public World getTargetWorld() {
+        return this.world;
+    }
+
+    /**
+     * Gets the {@link DayPartType} the world was in.
+     * @return The previous {@link DayPartType}.
+     */
+    public DayPartType getPreviousType() {
+        return this.previousType;
+    }
+
+    /**
+     * Gets the {@link DayPartType} the world is now in.
+     * @return The {@link DayPartType}.
+     */
+    public DayPartType getType() {
+        return this.type;
+    }
+
+    /**
+     * Gets the {@link DayPart} the world is now in.
+     * @return The {@link DayPart}, {@link Optional#empty()} if the world has no custom length for it.
+     */
+    public Optional<DayPart> getDayPart() {
+        return Optional.ofNullable(this.dayPart);
+    }
+
+    /**
+     * Gets the vanilla world time at which the change was detected.
+     * @return The vanilla world time.
+     */
+    public long getWorldTime() {
+        return this.worldTime;
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * This file is part of TimeWarp, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) InspireNXE <http://github.com/InspireNXE/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.inspirenxe.timewarp.event;
+
+import org.spongepowered.api.event.cause.Cause;
+import org.spongepowered.api.event.impl.AbstractEvent;
+import org.spongepowered.api.world.World;
+
+/**
+ * Posted on the main thread when the days passed in a warped world change, whether time reached midnight or was set or skipped to
+ * another day. Rewinding time posts this with fewer days passed than before.
+ */
+public final class NewDayEvent extends AbstractEvent {
+
+    private final Cause cause;
+    private final World world;
+    private final long previousDaysPassed;
+    private final long daysPassed;
+
+    public NewDayEvent(Cause cause, World world, long previousDaysPassed, long daysPassed) {
+        this.cause = cause;
+        this.world = world;
+        this.previousDaysPassed = previousDaysPassed;
+        this.daysPassed = daysPassed;
+    }
+
+    @Override
+    public Cause getCause() {
+        return this.cause;
+    }
+
+    /**
+     * Gets the {@link World} that started a new day.
+     * @return The {@link World}.
+     */
+    public World getTargetWorld() {
+        return this.world;
+    }
+
+    /**
+     * Gets the days passed in the world before this day.
+     * @return The previous days passed.
+     */
+    public long getPreviousDaysPassed() {
+        return this.previousDaysPassed;
+    }
+
+    /**
+     * Gets the days passed in the world.
+     * @return The days passed.
+     */
+    public long getDaysPassed() {
+        return this.daysPassed;
+    }
+}
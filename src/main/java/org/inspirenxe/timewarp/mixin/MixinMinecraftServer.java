@@ -0,0 +1,57 @@
+/*
+ * This file is part of TimeWarp, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) InspireNXE <http://github.com/InspireNXE/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.inspirenxe.timewarp.mixin;
+
+import net.minecraft.network.Packet;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.management.PlayerList;
+import net.minecraft.world.WorldServer;
+import org.inspirenxe.timewarp.api.IMixinWorldServer;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Redirect;
+
+@Mixin(MinecraftServer.class)
+public class MixinMinecraftServer {
+
+    /**
+     * Targets 'this.playerList.sendPacketToAllPlayersInDimension' in MinecraftServer#updateTimeLightAndEntities.
+     * @reason Vanilla Minecraft sends every dimension a time update packet every 20 ticks, telling clients to advance time on their own
+     * whenever doDaylightCycle is true. Warped worlds decide when clients may do so, see
+     * {@link org.inspirenxe.timewarp.engine.TimePacketPolicy}, so only worlds that are not warped keep the vanilla packet.
+     */
+    @Redirect(method = "updateTimeLightAndEntities", at = @At(value = "INVOKE",
+            target = "Lnet/minecraft/server/management/PlayerList;sendPacketToAllPlayersInDimension(Lnet/minecraft/network/Packet;I)V"),
+            require = 0, expect = 0)
+    public void onSendTimePacket(PlayerList playerList, Packet<?> packet, int dimension) {
+        final WorldServer world = ((MinecraftServer) (Object) this).getWorld(dimension);
+        // Worlds only tick their time, and with it send their own packets, while doDaylightCycle is true
+        if (world != null && ((IMixinWorldServer) world).getCachedWorldDay().isPresent()
+                && world.getGameRules().getBoolean("doDaylightCycle")) {
+            return;
+        }
+        playerList.sendPacketToAllPlayersInDimension(packet, dimension);
+    }
+}
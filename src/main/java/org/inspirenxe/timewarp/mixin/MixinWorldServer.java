@@ -24,21 +24,44 @@
  */
 package org.inspirenxe.timewarp.mixin;
 
+import net.minecraft.entity.player.EntityPlayer;
 import net.minecraft.entity.player.EntityPlayerMP;
 import net.minecraft.network.play.server.SPacketTimeUpdate;
 import net.minecraft.world.WorldServer;
 import net.minecraft.world.storage.WorldInfo;
 import org.inspirenxe.timewarp.TimeWarp;
 import org.inspirenxe.timewarp.api.IMixinWorldServer;
+import org.inspirenxe.timewarp.api.TimeSnapshot;
 import org.inspirenxe.timewarp.daypart.DayPart;
 import org.inspirenxe.timewarp.daypart.DayPartType;
+import org.inspirenxe.timewarp.engine.LagCompensator;
+import org.inspirenxe.timewarp.engine.RealTimeClock;
+import org.inspirenxe.timewarp.engine.SharedClock;
+import org.inspirenxe.timewarp.engine.TimePacketPolicy;
+import org.inspirenxe.timewarp.engine.WarpScheduler;
+import org.inspirenxe.timewarp.engine.WarpState;
+import org.inspirenxe.timewarp.engine.WarpUnit;
+import org.inspirenxe.timewarp.engine.WorldClock;
+import org.inspirenxe.timewarp.engine.WorldMetrics;
+import org.inspirenxe.timewarp.event.DayPartChangeEvent;
+import org.inspirenxe.timewarp.event.NewDayEvent;
+import org.inspirenxe.timewarp.world.PublishedTime;
+import org.inspirenxe.timewarp.world.ScheduleGroup;
+import org.inspirenxe.timewarp.world.ScheduleSnapshot;
 import org.inspirenxe.timewarp.world.WorldDay;
+import org.inspirenxe.timewarp.world.WorldTimeline;
+import org.spongepowered.api.Sponge;
+import org.spongepowered.api.event.CauseStackManager;
+import org.spongepowered.api.event.cause.Cause;
 import org.spongepowered.api.world.World;
 import org.spongepowered.api.world.storage.WorldProperties;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.Redirect;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
+import java.util.List;
 import java.util.Optional;
 
 @Mixin(WorldServer.class)
@@ -46,7 +69,28 @@ public class MixinWorldServer implements IMixinWorldServer {
     private WorldDay cachedWorldDay;
     private DayPartType cachedDayPartType;
     private DayPart cachedDayPart;
-    private long ticksUntilIncrement = 0L;
+    private ScheduleSnapshot cachedSnapshot;
+    private long cachedDaysPassed = -1L;
+    private long transitionStart;
+    private long transitionLength;
+    private final WorldClock clock = new WorldClock();
+    private final TimePacketPolicy timePacketPolicy = new TimePacketPolicy();
+    private final LagCompensator lagCompensator = new LagCompensator();
+    private SharedClock cachedSharedClock;
+    private RealTimeClock cachedRealTimeClock;
+    private WorldClock activeClock = this.clock;
+    private long lastWarpedTime = -1L;
+    private long timePacketsSent;
+    private long timePacketsSkipped;
+    private final WorldMetrics metrics = new WorldMetrics();
+    private final WarpScheduler scheduler = new WarpScheduler(e -> TimeWarp.instance.logger.error("A warped task threw an exception in "
+            + "world [" + ((World) this).getName() + "]", e));
+    private boolean metricsEnabled;
+    private boolean unmanaged;
+    private final PublishedTime publishedTime = new PublishedTime();
+    private WarpState pendingWarpState;
+    private long fastForwardTarget;
+    private long fastForwardTicks;
 
     /**
      * Targets 'this.worldInfo.setWorldTime' in WorldServer#tick. Required for certain builds of Forge.
@@ -55,7 +99,7 @@ public class MixinWorldServer implements IMixinWorldServer {
      */
     @Redirect(method = "tick", at = @At(value = "INVOKE", target = "Lnet/minecraft/world/storage/WorldInfo;setWorldTime(J)V"), require = 0, expect = 0)
     public void onIncrementTime(WorldInfo worldInfo, long value) {
-        incrementTime(worldInfo, value);
+        recordIncrementTime(worldInfo, value);
     }
 
     /**
@@ -65,132 +109,497 @@ public class MixinWorldServer implements IMixinWorldServer {
      */
     @Redirect(method = "tick", at = @At(value = "INVOKE", target = "Lnet/minecraft/world/WorldServer;setWorldTime(J)V"), require = 0, expect = 0)
     public void onIncrementTime(net.minecraft.world.WorldServer world, long value) {
-        incrementTime(world.getWorldInfo(), value);
+        recordIncrementTime(world.getWorldInfo(), value);
     }
 
-    private void incrementTime(WorldInfo worldInfo, long originalValue) {
-        final WorldProperties worldProperties = (WorldProperties) worldInfo;
+    /**
+     * Targets 'WorldServer#areAllPlayersAsleep'.
+     * @reason Skipping the night in warped worlds is decided by the sleep percentage of the world and goes through the clock, see
+     * {@link IMixinWorldServer#skipToDayPart(DayPartType)}
+     */
+    @Inject(method = "areAllPlayersAsleep", at = @At("HEAD"), cancellable = true)
+    public void onAreAllPlayersAsleep(CallbackInfoReturnable<Boolean> callbackInfo) {
+        if (this.cachedWorldDay != null) {
+            callbackInfo.setReturnValue(false);
+        }
+    }
+
+    private void recordIncrementTime(WorldInfo worldInfo, long originalValue) {
+        // Worlds TimeWarp does not manage tick as vanilla Minecraft does without resolving anything, until a reload resolves them again
+        if (this.unmanaged) {
+            this.incrementVanillaTime(worldInfo, originalValue);
+            return;
+        }
+        // Only read the clock when metrics are enabled
+        if (!this.metricsEnabled) {
+            incrementTime(worldInfo, originalValue);
+            return;
+        }
 
-        // Update our cache if needed
-        if (this.cachedWorldDay == null
-                && TimeWarp.getSupportedDimensionTypes().contains(worldProperties.getDimensionType())
-                && TimeWarp.instance.storage.getChildNode("sync.worlds." + worldInfo.getWorldName().toLowerCase() + ".enabled").getBoolean()) {
-            this.cachedWorldDay = new WorldDay(worldProperties.getWorldName()).init();
+        final long start = System.nanoTime();
+        final WorldClock clock = this.activeClock;
+        final long skippedDayParts = clock.getSkippedDayParts();
+        incrementTime(worldInfo, originalValue);
+        if (this.metricsEnabled) {
+            this.metrics.recordSkippedDayParts(clock.getSkippedDayParts() - skippedDayParts);
+            this.metrics.recordTick(System.nanoTime() - start);
         }
+    }
+
+    private void incrementTime(WorldInfo worldInfo, long originalValue) {
+        final ScheduleSnapshot snapshot = this.resolveSnapshot(worldInfo);
 
         // Attempt to continue with our logic
         if (this.cachedWorldDay != null) {
-            // Set the days passed to the world day
-            this.cachedWorldDay.setDaysPassed(worldProperties.getWorldTime() / DayPartType.DEFAULT_DAY_LENGTH);
-
-            // Get the current time remaining after we take away all full days
-            long currentTime = worldProperties.getWorldTime() % DayPartType.DEFAULT_DAY_LENGTH;
+            final long currentTime = worldInfo.getWorldTime();
+            final SharedClock sharedClock = this.cachedSharedClock;
+            final long worldTime;
+            final long warpedTicks;
+            final boolean predictable;
+            final boolean timePacketDue;
+            if (this.cachedRealTimeClock != null) {
+                // Time follows the real clock, which only changes every few seconds so clients hold the time they were sent
+                worldTime = this.cachedRealTimeClock.getWorldTime(System.currentTimeMillis());
+                warpedTicks = 1L;
+                predictable = false;
+                timePacketDue = this.timePacketPolicy.tick(worldTime, false, snapshot.getTimePacketResyncInterval());
+            } else if (sharedClock != null) {
+                // Time changed by anything but the shared clock, such as a command or players waking up, applies to the whole group
+                if (this.lastWarpedTime != -1L && currentTime != this.lastWarpedTime) {
+                    sharedClock.setWorldTime(currentTime);
+                }
+                // Only the first world of the group to tick in this server tick steps the clock
+                sharedClock.tick(Sponge.getServer().getRunningTimeTicks(), currentTime, snapshot.getTimePacketResyncInterval(),
+                        snapshot.getMaxCatchUpTicks());
+                worldTime = sharedClock.getWorldTime();
+                warpedTicks = sharedClock.getSteppedTicks();
+                predictable = sharedClock.getClock().isClientPredictable();
+                // Players in this world are out of sync as well if the world just joined the group or had its time changed
+                timePacketDue = sharedClock.isTimePacketDue() || currentTime != this.lastWarpedTime;
+            } else if (this.fastForwardTicks != 0L && currentTime == this.lastWarpedTime) {
+                // Fast forward through the night, time jumps every tick so clients can not predict it and packets are rate limited
+                warpedTicks = this.stepFastForward(currentTime);
+                worldTime = this.clock.advance(currentTime, warpedTicks);
+                predictable = false;
+                timePacketDue = this.timePacketPolicy.tick(worldTime, false, snapshot.getTimePacketResyncInterval(),
+                        this.fastForwardTicks == 0L ? 0L : snapshot.getFastForwardPacketInterval());
+            } else {
+                // Time changed by anything but the clock ends a fast forward, players wake up at whatever time they were sent to
+                this.fastForwardTicks = 0L;
+                // Advance by the ticks that fit in the real time elapsed if the server is lagging, in one step rather than a loop
+                warpedTicks = this.lagCompensator.tick(snapshot.getMaxCatchUpTicks());
+                worldTime = this.clock.advance(currentTime, warpedTicks);
+                predictable = this.clock.isClientPredictable();
+                timePacketDue = this.timePacketPolicy.tick(worldTime, predictable, snapshot.getTimePacketResyncInterval());
+            }
+            this.lastWarpedTime = worldTime;
+            worldInfo.setWorldTime(worldTime);
 
-            // Update our cache if needed
-            if (this.cachedDayPartType == null) {
-                this.cachedDayPartType = DayPartType.getTypeFromTime(currentTime).orElse(null);
+            // Update our cache if the time left the daypart and day it was last resolved for, a single unsigned comparison catches
+            // time moving backwards as well
+            if (Long.compareUnsigned(worldTime - this.transitionStart, this.transitionLength) >= 0) {
+                this.onTransition(worldTime);
             }
 
-            // Attempt to continue with our logic
-            if (this.cachedDayPartType != null) {
+            // Run warped tasks that became due, which only peeks at the earliest one while none are
+            this.scheduler.advance(warpedTicks);
+            this.publishTime(worldTime, this.cachedRealTimeClock == null ? this.activeClock : null);
 
-                // Update our cache if needed
-                if (cachedDayPart == null) {
-                    this.cachedDayPart = this.cachedWorldDay.getDayPart(this.cachedDayPartType).orElse(null);
+            // Send time update packets to all players in this world if their clients would otherwise be out of sync
+            final List<EntityPlayer> players = ((net.minecraft.world.World) (Object) this).playerEntities;
+            if (timePacketDue) {
+                // WorldServer#tick only increments time while doDaylightCycle is true, so there is no need to look it up here. The
+                // packet is immutable once built and is shared by every recipient. Worlds sharing a clock share only the world time, each
+                // builds its own packet as the total time is kept per world.
+                final SPacketTimeUpdate packet = new SPacketTimeUpdate(worldInfo.getWorldTotalTime(), worldTime, predictable);
+                for (int i = 0; i < players.size(); i++) {
+                    ((EntityPlayerMP) players.get(i)).connection.sendPacket(packet);
                 }
+                this.timePacketsSent += players.size();
+                if (this.metricsEnabled) {
+                    this.metrics.recordTimePacketsSent(players.size());
+                }
+            } else {
+                this.timePacketsSkipped += players.size();
+            }
 
-                // Attempt to continue with our logic
-                if (this.cachedDayPart != null) {
-                    if (this.cachedDayPart.getLength() == 0) {
-                        // Skip the daypart
-                        DayPartType.getTypeFromTime(currentTime - 1)
-                                .ifPresent(dayPartType -> cachedWorldDay.getNextDayPart(dayPartType)
-                                        .ifPresent(dayPart -> worldProperties.setWorldTime(dayPart.getType().defaultStartTime + 1)));
-
-                        // Clear cache
-                        this.clearDayPartCache();
-                        this.clearDayPartTypeCache();
-
-                        // We do not need to continue
-                        return;
-                    } else if (this.ticksUntilIncrement <= 1) {
-                        // Tick the world time up by one
-                        worldProperties.setWorldTime((this.cachedWorldDay.getDaysPassed() * DayPartType.DEFAULT_DAY_LENGTH) + ++currentTime);
-
-                        // Get the difference between our current time and our target time
-                        final long currentTimeScaled = scale(currentTime,
-                                this.cachedDayPartType.defaultStartTime,
-                                this.cachedDayPartType.defaultEndTime,
-                                this.cachedWorldDay.getStartTime(this.cachedDayPartType),
-                                this.cachedWorldDay.getEndTime(this.cachedDayPartType));
-                        final long targetTimeScaled = scale(++currentTime,
-                                this.cachedDayPartType.defaultStartTime,
-                                this.cachedDayPartType.defaultEndTime,
-                                this.cachedWorldDay.getStartTime(this.cachedDayPartType),
-                                this.cachedWorldDay.getEndTime(this.cachedDayPartType));
-
-                        this.ticksUntilIncrement = Math.abs(targetTimeScaled - currentTimeScaled);
-
-                        if (!DayPartType.isWithinTimeRange(this.cachedDayPartType, currentTime)) {
-                            this.clearDayPartCache();
-                            this.clearDayPartTypeCache();
-                        }
+            // We do not need to continue
+            return;
+        }
+
+        // Tick the world time as normal
+        this.incrementVanillaTime(worldInfo, originalValue);
+    }
+
+    private void incrementVanillaTime(WorldInfo worldInfo, long originalValue) {
+        worldInfo.setWorldTime(originalValue);
+        this.publishTime(originalValue, null);
+        // Tasks are only ever due in worlds that have some, the scheduler stands still while there are none
+        if (this.scheduler.getTaskCount() != 0) {
+            this.scheduler.advance(1L);
+        }
+    }
+
+    /**
+     * Publishes the time of this world for readers on other threads, see {@link #getTimeSnapshot()}.
+     * @param worldTime The vanilla world time.
+     * @param clock The {@link WorldClock} the time was stepped with, null to use vanilla lengths.
+     */
+    private void publishTime(long worldTime, WorldClock clock) {
+        final World world = (World) this;
+        this.publishedTime.publish(world.getUniqueId(), world.getName(), worldTime, clock);
+    }
+
+    /**
+     * Resolves whether this world is warped once per {@link ScheduleSnapshot}. Worlds that are not warped are marked unmanaged and stop
+     * resolving on their tick, {@link #refreshSnapshot()} resolves them again once the next snapshot is published.
+     * @param worldInfo The {@link WorldInfo} of this world.
+     * @return The current {@link ScheduleSnapshot}.
+     */
+    private ScheduleSnapshot resolveSnapshot(WorldInfo worldInfo) {
+        final WorldProperties worldProperties = (WorldProperties) worldInfo;
+        final ScheduleSnapshot snapshot = TimeWarp.getSnapshot();
+        if (this.cachedSnapshot != snapshot) {
+            this.cachedSnapshot = snapshot;
+            this.metricsEnabled = snapshot.getSettings().isMetrics();
+            final WorldDay worldDay = snapshot.getDimensionTypes().contains(worldProperties.getDimensionType())
+                    ? snapshot.getWorldDay(worldInfo.getWorldName()).orElse(null) : null;
+            this.unmanaged = worldDay == null;
+            // Snapshots reuse the WorldDay of worlds whose settings did not change, those keep their caches untouched
+            if (worldDay != this.cachedWorldDay) {
+                // Worlds sharing the clock of their group step that clock instead of their own
+                this.cachedSharedClock = worldDay == null ? null : worldDay.getGroup().flatMap(ScheduleGroup::getSharedClock).orElse(null);
+                this.cachedRealTimeClock = worldDay == null ? null : worldDay.getRealTimeClock().orElse(null);
+                this.activeClock = this.cachedSharedClock == null ? this.clock : this.cachedSharedClock.getClock();
+                this.lastWarpedTime = -1L;
+                this.fastForwardTicks = 0L;
+                if (worldDay != null && this.cachedSharedClock == null) {
+                    if (worldDay.getCalendar().isPresent()) {
+                        this.clock.setCalendar(worldDay.getCalendar().get(), worldInfo.getWorldTime());
                     } else {
-                        // Tick down the time until we next increment the world time
-                        this.ticksUntilIncrement--;
+                        this.clock.setTimeline(worldDay.getTimeline(), worldInfo.getWorldTime());
                     }
+                }
+                if (this.metricsEnabled) {
+                    this.metrics.recordCacheRebuild();
+                }
+                this.cachedWorldDay = worldDay;
+                this.cachedDayPartType = null;
+                this.cachedDayPart = null;
+                this.cachedDaysPassed = -1L;
+                this.transitionLength = 0L;
+                this.restorePendingWarpState(worldInfo);
+            }
+        }
+        return snapshot;
+    }
 
-                    // Send time update packets to all players in this world
-                    final long totalTime = worldProperties.getTotalTime();
-                    final long worldTime = worldProperties.getWorldTime();
-                    final boolean doDaylightCycle = Boolean.valueOf(worldProperties.getGameRule("doDaylightCycle").orElse("false"));
-                    ((World) this).getPlayers().forEach(player ->
-                            ((EntityPlayerMP) player).connection.sendPacket(new SPacketTimeUpdate(totalTime, worldTime, doDaylightCycle)));
+    private void restorePendingWarpState(WorldInfo worldInfo) {
+        final WarpState state = this.pendingWarpState;
+        if (state == null || this.cachedWorldDay == null) {
+            return;
+        }
+        this.pendingWarpState = null;
+        // Anything that changed the time since the state was saved, such as another plugin or an edited level.dat, wins
+        if (this.cachedRealTimeClock != null || state.worldTime != worldInfo.getWorldTime()) {
+            return;
+        }
+        final boolean restored = this.cachedSharedClock != null ? this.cachedSharedClock.restore(state) : this.clock.restore(state);
+        if (restored) {
+            this.lastWarpedTime = state.worldTime;
+        }
+        if (TimeWarp.instance.logger.isDebugEnabled()) {
+            TimeWarp.instance.logger.debug((restored ? "Restored " : "Unable to restore ") + state + " for world ["
+                    + ((World) this).getName() + "]");
+        }
+    }
 
-                    // We do not need to continue
-                    return;
-                }
+    private void onTransition(long worldTime) {
+        final long timeOfDay = worldTime % DayPartType.DEFAULT_DAY_LENGTH;
+        final long daysPassed = worldTime / DayPartType.DEFAULT_DAY_LENGTH;
+        final DayPartType currentType = DayPartType.fromTime(timeOfDay);
+
+        // Precompute the window until the next daypart or midnight, whichever comes first
+        final long dayStart = daysPassed * DayPartType.DEFAULT_DAY_LENGTH;
+        final long dayPartStart = worldTime - Math.floorMod(timeOfDay - currentType.defaultStartTime, DayPartType.DEFAULT_DAY_LENGTH);
+        this.transitionStart = Math.max(dayStart, dayPartStart);
+        this.transitionLength = Math.min(dayStart + DayPartType.DEFAULT_DAY_LENGTH, dayPartStart + currentType.defaultLength)
+                - this.transitionStart;
+
+        final DayPartType previousType = this.cachedDayPartType;
+        final long previousDaysPassed = this.cachedDaysPassed;
+        if (previousType != currentType) {
+            if (this.metricsEnabled && previousType != null) {
+                this.metrics.recordDayPartTransition();
             }
+            this.cachedDayPartType = currentType;
+            this.cachedDayPart = this.cachedWorldDay.getDayPart(currentType).orElse(null);
         }
+        this.cachedDaysPassed = daysPassed;
 
-        // Tick the world time as normal
-        worldProperties.setWorldTime(worldProperties.getWorldTime() + originalValue);
+        // Nothing is posted while the caches are first resolved
+        final boolean newDay = previousDaysPassed != -1L && previousDaysPassed != daysPassed;
+        final boolean dayPartChanged = previousType != null && previousType != currentType;
+        if (newDay || dayPartChanged) {
+            try (CauseStackManager.StackFrame frame = Sponge.getCauseStackManager().pushCauseFrame()) {
+                frame.pushCause(this);
+                final Cause cause = Sponge.getCauseStackManager().getCurrentCause();
+                if (newDay) {
+                    Sponge.getEventManager().post(new NewDayEvent(cause, (World) this, previousDaysPassed, daysPassed));
+                }
+                if (dayPartChanged) {
+                    Sponge.getEventManager().post(new DayPartChangeEvent(cause, (World) this, previousType, currentType, this.cachedDayPart,
+                            worldTime));
+                }
+            }
+        }
+        if (dayPartChanged) {
+            this.scheduler.onDayPart(currentType);
+        }
     }
 
     @Override
     public long getTicksUntilNextIncrement() {
-        return this.ticksUntilIncrement;
+        return this.activeClock.getTicksUntilNextIncrement();
     }
 
     @Override
     public void setTicksUntilNextIncrement(long ticksUntilIncrement) {
-        this.ticksUntilIncrement = ticksUntilIncrement;
+        this.activeClock.setTicksUntilNextIncrement(ticksUntilIncrement);
+    }
+
+    @Override
+    public long skipWarpedTicks(long ticks) {
+        return this.skip(ticks, WarpUnit.TICKS);
+    }
+
+    @Override
+    public long skipDayParts(long dayParts) {
+        return this.skip(dayParts, WarpUnit.DAYPARTS);
+    }
+
+    @Override
+    public long skipDays(long days) {
+        return this.skip(days, WarpUnit.DAYS);
+    }
+
+    @Override
+    public long skipToDayPart(DayPartType type) {
+        final long currentTime = ((net.minecraft.world.World) (Object) this).getWorldInfo().getWorldTime();
+        return this.skip(this.getSkipClock(currentTime).getDayPartsUntil(currentTime, type), WarpUnit.DAYPARTS);
+    }
+
+    private long skip(long amount, WarpUnit unit) {
+        if (this.cachedRealTimeClock != null) {
+            throw new IllegalStateException("Unable to skip time in a world that follows the real clock.");
+        }
+
+        final WorldInfo worldInfo = ((net.minecraft.world.World) (Object) this).getWorldInfo();
+        final long currentTime = worldInfo.getWorldTime();
+        final SharedClock sharedClock = this.cachedSharedClock;
+        final WorldClock clock = this.getSkipClock(currentTime);
+        this.fastForwardTicks = 0L;
+
+        // A shared clock that has never stepped starts at the skipped time, there is no warped time to measure the skip from
+        final boolean started = sharedClock == null || sharedClock.getWorldTime() != -1L;
+        final long previousTime = sharedClock != null && started ? sharedClock.getWorldTime() : currentTime;
+        final long previousWarpedTime = started ? clock.getWarpedTime(previousTime) : 0L;
+        final long worldTime = sharedClock != null ? sharedClock.skip(currentTime, amount, unit) : clock.skip(currentTime, amount, unit);
+        worldInfo.setWorldTime(worldTime);
+
+        // The clock already moved with the time, keep the caches in step so the next tick continues from here
+        if (this.cachedWorldDay != null) {
+            this.lastWarpedTime = worldTime;
+            this.onTransition(worldTime);
+        }
+        this.publishTime(worldTime, this.cachedWorldDay == null ? null : clock);
+        // Tasks due within the skipped time run now, rewinding leaves them waiting
+        if (started) {
+            this.scheduler.advance(clock.getWarpedTime(worldTime) - previousWarpedTime);
+        }
+        return worldTime;
+    }
+
+    @Override
+    public long fastForwardToDayPart(DayPartType type, long ticks) {
+        if (this.cachedRealTimeClock != null) {
+            throw new IllegalStateException("Unable to skip time in a world that follows the real clock.");
+        }
+        // Worlds sharing a clock would drag the rest of the group along, they and worlds that are not warped jump at once
+        if (ticks <= 0L || this.cachedWorldDay == null || this.cachedSharedClock != null) {
+            this.skipToDayPart(type);
+            return 0L;
+        }
+
+        final long currentTime = ((net.minecraft.world.World) (Object) this).getWorldInfo().getWorldTime();
+        final long warpedTicks = this.clock.getWarpedTicksUntil(currentTime, type);
+        this.fastForwardTarget = this.clock.getWarpedTime(currentTime) + warpedTicks;
+        this.fastForwardTicks = ticks;
+        // The clock picks up time changed by anything else on its own, the fast forward starts from here
+        this.lastWarpedTime = currentTime;
+        return warpedTicks;
+    }
+
+    /**
+     * Gets the warped ticks to advance by this tick while fast forwarding, spreading what is left evenly over the ticks left.
+     * @param currentTime The current world time.
+     * @return The warped ticks, never crossing more than one daypart so transitions are posted for every daypart in order.
+     */
+    private long stepFastForward(long currentTime) {
+        final long remaining = this.fastForwardTarget - this.clock.getWarpedTime(currentTime);
+        long step = (remaining + this.fastForwardTicks - 1L) / this.fastForwardTicks;
+        final long dayPartLength = this.clock.getDayPartLength(currentTime);
+        if (dayPartLength != 0L) {
+            step = Math.min(step, dayPartLength - this.clock.getDayPartElapsed(currentTime));
+        }
+        step = Math.max(1L, step);
+        if (step >= remaining) {
+            // The ticks spent fast forwarding are not real time to catch up with once done
+            this.fastForwardTicks = 0L;
+            this.lagCompensator.reset();
+            return Math.max(0L, remaining);
+        }
+        this.fastForwardTicks = Math.max(1L, this.fastForwardTicks - 1L);
+        return step;
+    }
+
+    /**
+     * Gets the clock to skip time of this world with.
+     * @param currentTime The current world time.
+     * @return The shared clock of the group, the clock of this world or a vanilla clock if this world is not warped.
+     */
+    private WorldClock getSkipClock(long currentTime) {
+        final SharedClock sharedClock = this.cachedSharedClock;
+        if (sharedClock != null) {
+            // Time changed by anything but the shared clock since the last tick applies to the group first, as it would next tick
+            if (this.lastWarpedTime != -1L && currentTime != this.lastWarpedTime) {
+                sharedClock.setWorldTime(currentTime);
+            }
+            return sharedClock.getClock();
+        }
+        if (this.cachedWorldDay != null) {
+            return this.clock;
+        }
+        // Worlds that are not warped jump through vanilla lengths, their clock is never ticked so it is not kept
+        return new WorldClock(WorldTimeline.VANILLA);
+    }
+
+    @Override
+    public boolean isFastForwarding() {
+        return this.fastForwardTicks != 0L;
+    }
+
+    @Override
+    public void wakeSleepingPlayers() {
+        final net.minecraft.world.World world = (net.minecraft.world.World) (Object) this;
+        final List<EntityPlayer> players = world.playerEntities;
+        // Waking up removes nobody from the world, but listeners of the wake up may, so wake a copy
+        for (EntityPlayer player : players.toArray(new EntityPlayer[0])) {
+            if (player.isPlayerSleeping()) {
+                player.wakeUpPlayer(false, false, true);
+            }
+        }
+        // Mirrors vanilla Minecraft, the weather clears along with the night
+        if (world.getGameRules().getBoolean("doWeatherCycle")) {
+            final WorldInfo worldInfo = world.getWorldInfo();
+            worldInfo.setRainTime(0);
+            worldInfo.setRaining(false);
+            worldInfo.setThunderTime(0);
+            worldInfo.setThundering(false);
+        }
+    }
+
+    @Override
+    public void refreshSnapshot() {
+        this.resolveSnapshot(((net.minecraft.world.World) (Object) this).getWorldInfo());
+    }
+
+    @Override
+    public Optional<WarpState> captureWarpState() {
+        if (this.cachedWorldDay == null || this.cachedRealTimeClock != null) {
+            return Optional.empty();
+        }
+        return Optional.of(this.activeClock.capture(((net.minecraft.world.World) (Object) this).getWorldInfo().getWorldTime()));
+    }
+
+    @Override
+    public void restoreWarpState(WarpState state) {
+        final WorldInfo worldInfo = ((net.minecraft.world.World) (Object) this).getWorldInfo();
+        this.pendingWarpState = state;
+        // Worlds that load before the configuration keep the state until their schedule is resolved
+        this.resolveSnapshot(worldInfo);
+        this.restorePendingWarpState(worldInfo);
+    }
+
+    @Override
+    public Optional<TimeSnapshot> getTimeSnapshot() {
+        return this.publishedTime.getSnapshot();
+    }
+
+    @Override
+    public WarpScheduler getScheduler() {
+        return this.scheduler;
+    }
+
+    @Override
+    public long getTimePacketsSent() {
+        return this.timePacketsSent;
+    }
+
+    @Override
+    public long getTimePacketsSkipped() {
+        return this.timePacketsSkipped;
+    }
+
+    @Override
+    public WorldMetrics.Snapshot getMetrics() {
+        return this.metrics.snapshot(this.metricsEnabled);
+    }
+
+    @Override
+    public void resetMetrics() {
+        this.metrics.reset();
     }
 
     @Override
     public void clearCache() {
-        TimeWarp.instance.logger.debug("Clearing all cache types for world [" + ((World) this).getName() + "]");
+        if (TimeWarp.instance.logger.isDebugEnabled()) {
+            TimeWarp.instance.logger.debug("Clearing all cache types for world [" + ((World) this).getName() + "]");
+        }
         this.cachedWorldDay = null;
         this.cachedDayPart = null;
         this.cachedDayPartType = null;
+        this.cachedDaysPassed = -1L;
+        this.transitionLength = 0L;
+        this.cachedSnapshot = null;
+        this.unmanaged = false;
     }
 
     @Override
     public void clearWorldDayCache() {
-        TimeWarp.instance.logger.debug("Clearing cache type [WorldDay] for world [" + ((World) this).getName() + "]");
+        if (TimeWarp.instance.logger.isDebugEnabled()) {
+            TimeWarp.instance.logger.debug("Clearing cache type [WorldDay] for world [" + ((World) this).getName() + "]");
+        }
         this.cachedWorldDay = null;
+        this.cachedSnapshot = null;
+        this.unmanaged = false;
     }
 
     @Override
     public void clearDayPartCache() {
-        TimeWarp.instance.logger.debug("Clearing cache type [DayPart] for world [" + ((World) this).getName() + "]");
+        if (TimeWarp.instance.logger.isDebugEnabled()) {
+            TimeWarp.instance.logger.debug("Clearing cache type [DayPart] for world [" + ((World) this).getName() + "]");
+        }
         this.cachedDayPart = null;
     }
 
     @Override
     public void clearDayPartTypeCache() {
-        TimeWarp.instance.logger.debug("Clearing cache type [DayPartType] for world [" + ((World) this).getName() + "]");
+        if (TimeWarp.instance.logger.isDebugEnabled()) {
+            TimeWarp.instance.logger.debug("Clearing cache type [DayPartType] for world [" + ((World) this).getName() + "]");
+        }
         this.cachedDayPartType = null;
+        this.transitionLength = 0L;
     }
 
     @Override
@@ -207,19 +616,4 @@ public class MixinWorldServer implements IMixinWorldServer {
     public Optional<DayPartType> getCachedDayPartType() {
         return Optional.ofNullable(this.cachedDayPartType);
     }
-
-    /**
-     * Scales time from one range to another.
-     *
-     * @param time The time to scale.
-     * @param originalStart The original start time.
-     * @param originalEnd The original end time.
-     * @param newStart The new start time.
-     * @param newEnd The new end time.
-     * @return The scaled time.
-     */
-    private static long scale(long time, long originalStart, long originalEnd, long newStart, long newEnd) {
-        double scale = (newEnd - newStart) / (originalEnd - originalStart);
-        return (long) (newStart + ((time - originalStart) * scale));
-    }
 }
@@ -0,0 +1,152 @@
+/*
+ * This file is part of TimeWarp, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) InspireNXE <http://github.com/InspireNXE/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.inspirenxe.timewarp.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.spongepowered.api.plugin.PluginContainer;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches a configuration file for changes on a background thread.
+ */
+public class ConfigWatcher {
+
+    /**
+     * The time to wait for further changes before notifying, editors often write a file more than once when saving.
+     */
+    private static final long SETTLE_MILLIS = 500L;
+
+    private final Logger logger;
+    private final String name;
+    private final Path file;
+    private final Runnable listener;
+    private WatchService watchService;
+
+    /**
+     * Creates a watcher, call {@link ConfigWatcher#start()} to start watching.
+     * @param container The {@link PluginContainer}.
+     * @param file The file to watch.
+     * @param listener The listener to run on the watcher thread once the file has changed.
+     */
+    public ConfigWatcher(PluginContainer container, File file, Runnable listener) {
+        this.logger = LoggerFactory.getLogger(container.getName() + " - Watcher");
+        this.name = container.getName() + " - Config Watcher";
+        this.file = file.toPath().toAbsolutePath();
+        this.listener = listener;
+    }
+
+    /**
+     * Starts watching the file, does nothing if already watching.
+     * @return {@link ConfigWatcher} for chaining.
+     */
+    public synchronized ConfigWatcher start() {
+        if (watchService != null) {
+            return this;
+        }
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            logger.error("Unable to watch [" + file + "] for changes!", e);
+            this.stop();
+            return this;
+        }
+        final WatchService service = watchService;
+        final Thread thread = new Thread(() -> this.watch(service), name);
+        thread.setDaemon(true);
+        thread.start();
+        return this;
+    }
+
+    /**
+     * Stops watching the file, does nothing if not watching.
+     * @return {@link ConfigWatcher} for chaining.
+     */
+    public synchronized ConfigWatcher stop() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                logger.error("Unable to stop watching [" + file + "]!", e);
+            }
+            watchService = null;
+        }
+        return this;
+    }
+
+    /**
+     * Gets whether the file is being watched.
+     * @return True if watching, false if not.
+     */
+    public synchronized boolean isRunning() {
+        return watchService != null;
+    }
+
+    private void watch(WatchService service) {
+        try {
+            while (true) {
+                if (!this.isChanged(service.take())) {
+                    continue;
+                }
+
+                // Wait for the file to settle, draining events for it in the meantime
+                WatchKey key;
+                while ((key = service.poll(SETTLE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    this.isChanged(key);
+                }
+
+                try {
+                    listener.run();
+                } catch (RuntimeException e) {
+                    logger.error("Unable to handle a change to [" + file + "]!", e);
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException ignored) {
+            // We are no longer watching
+        }
+    }
+
+    private boolean isChanged(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || file.getFileName().equals(event.context())) {
+                changed = true;
+            }
+        }
+        key.reset();
+        return changed;
+    }
+}
@@ -24,11 +24,9 @@
  */
 package org.inspirenxe.timewarp.util;
 
-import com.google.common.base.Joiner;
-import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
-import com.google.common.collect.Queues;
 import ninja.leaping.configurate.commented.CommentedConfigurationNode;
+import ninja.leaping.configurate.hocon.HoconConfigurationLoader;
 import ninja.leaping.configurate.loader.ConfigurationLoader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,30 +34,59 @@ import org.spongepowered.api.plugin.PluginContainer;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.List;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
 import java.util.Map;
-import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class Storage {
 
     private ConfigurationLoader<CommentedConfigurationNode> loader;
+    private final ConfigurationLoader<CommentedConfigurationNode> temporaryLoader;
     private CommentedConfigurationNode rootNode;
     private final File configuration;
     private final Map<String, Object> defaultNodes = Maps.newTreeMap();
     private final Logger logger;
+    private final ExecutorService writer;
+    private final AtomicReference<CommentedConfigurationNode> pendingWrite = new AtomicReference<>();
+    private Future<?> lastWrite;
+    private volatile FileTime lastKnownModifiedTime;
+    private boolean async;
+    private int batchDepth;
+    private boolean dirty;
 
     public Storage(PluginContainer container, File configuration, ConfigurationLoader<CommentedConfigurationNode> loader) {
         logger = LoggerFactory.getLogger(container.getName() + " - Storage");
         this.loader = loader;
         this.configuration = configuration;
+        // Saves go through a sibling file first, written with the options of the injected loader so the output stays the same
+        this.temporaryLoader = HoconConfigurationLoader.builder()
+                .setPath(this.getTemporaryPath())
+                .setDefaultOptions(loader.getDefaultOptions())
+                .build();
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, container.getName() + " - Storage Writer");
+            thread.setDaemon(true);
+            return thread;
+        });
         this.init();
     }
 
     /**
-     * Initializes the configuration file. File is created if non-existant.
+     * Initializes the configuration file. File is created if non-existant. Registered default nodes are applied to missing values.
      * @return {@link Storage} for chaining.
      */
     public Storage init() {
+        this.flush();
         if (!configuration.exists()) {
             try {
                 configuration.createNewFile();
@@ -69,57 +96,123 @@ public class Storage {
         }
         try {
             rootNode = this.loader.load();
+            lastKnownModifiedTime = Files.getLastModifiedTime(configuration.toPath());
         } catch (IOException e) {
             logger.error("Unable to load configuration file!", e);
         }
-        return this;
+        return this.load();
     }
 
     /**
-     * Loads the configuration file.
+     * Applies all registered default nodes to missing values. Calls {@link Storage#save()} if any value was missing and no batch is
+     * in progress.
      * @return {@link Storage} for chaining.
      */
     public Storage load() {
-        defaultNodes.entrySet().stream().filter(entry -> entry.getValue() != null).forEach(entry -> {
-            final CommentedConfigurationNode node = getChildNode(entry.getKey());
-            if (node.getValue() == null) {
-                getChildNode(entry.getKey()).setValue(entry.getValue());
-            }
-        });
-        final Queue<CommentedConfigurationNode> queue = Queues.newConcurrentLinkedQueue();
-        queue.add(rootNode);
-        while (!queue.isEmpty()) {
-            final CommentedConfigurationNode node = queue.remove();
-            if (node.hasMapChildren()) {
-                for (Map.Entry<Object, ? extends CommentedConfigurationNode> entry : node.getChildrenMap().entrySet()) {
-                    queue.add(entry.getValue());
+        for (Map.Entry<String, Object> entry : defaultNodes.entrySet()) {
+            this.applyDefaultNode(entry.getKey(), entry.getValue());
+        }
+        return this.saveIfDirty();
+    }
+
+    /**
+     * Saves the configuration file.
+     * <p>When asynchronous saving is enabled a copy of the configuration is handed to a background writer, saves made before it gets
+     * to run are coalesced into a single write. The file is always written to a temporary file first and then moved into place.</p>
+     * @return {@link Storage} for chaining.
+     */
+    public Storage save() {
+        dirty = false;
+        if (!async) {
+            this.write(rootNode);
+            return this;
+        }
+        if (pendingWrite.getAndSet(rootNode.copy()) == null) {
+            lastWrite = writer.submit(() -> {
+                final CommentedConfigurationNode node = pendingWrite.getAndSet(null);
+                if (node != null) {
+                    this.write(node);
                 }
+            });
+        }
+        return this;
+    }
+
+    /**
+     * Blocks until all pending asynchronous saves have been written.
+     * @return {@link Storage} for chaining.
+     */
+    public Storage flush() {
+        if (lastWrite != null) {
+            try {
+                lastWrite.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                logger.error("Unable to save configuration!", e.getCause());
             }
         }
-        save();
-        try {
-            loader.load();
-        } catch (IOException e) {
-            logger.error("Unable to load configuration!", e);
+        return this;
+    }
+
+    /**
+     * Sets whether {@link Storage#save()} writes through a background writer.
+     * @param async True to write asynchronously, false to block until written.
+     * @return {@link Storage} for chaining.
+     */
+    public Storage setAsync(boolean async) {
+        if (!async) {
+            this.flush();
         }
+        this.async = async;
         return this;
     }
 
     /**
-     * Saves the configuration file.
+     * Starts a batch. Until the matching {@link Storage#endBatch()} default nodes are only merged in memory.
+     * <p>Batches may be nested, the configuration file is written at most once when the outermost batch ends.</p>
      * @return {@link Storage} for chaining.
      */
-    public Storage save() {
+    public Storage beginBatch() {
+        batchDepth++;
+        return this;
+    }
+
+    /**
+     * Ends a batch started by {@link Storage#beginBatch()}. Calls {@link Storage#save()} if this ends the outermost batch and any
+     * default node was merged.
+     * @return {@link Storage} for chaining.
+     */
+    public Storage endBatch() {
+        if (batchDepth > 0) {
+            batchDepth--;
+        }
+        return this.saveIfDirty();
+    }
+
+    /**
+     * Gets whether any default node was merged since the configuration was last saved.
+     * @return True if there are unsaved defaults, false if not.
+     */
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    /**
+     * Gets whether the configuration file was modified by something other than this {@link Storage} since it was last loaded or
+     * saved. Safe to call from any thread.
+     * @return True if modified externally, false if not.
+     */
+    public boolean isModifiedOnDisk() {
         try {
-            loader.save(rootNode);
+            return !Files.getLastModifiedTime(configuration.toPath()).equals(lastKnownModifiedTime);
         } catch (IOException e) {
-            logger.error("Unable to save configuration!", e);
+            return false;
         }
-        return this;
     }
 
     /**
-     * Registers a default node. Calls {@link Storage#save()} and {@link Storage#load()}.
+     * Registers a default node. Calls {@link Storage#save()} if the node was missing and no batch is in progress.
      * @param path The path to register.
      * <p>The path is split by a period for example "path.to.node" is the equivalent of...
      * path {
@@ -130,19 +223,9 @@ public class Storage {
      * @param value The value to register.
      */
     public void registerDefaultNode(String path, Object value) {
-        final String[] nodes = path.split("\\.");
-        final List<String> currentPath = Lists.newArrayList();
-        for (int i = 0; i < nodes.length; i++) {
-            if (i < nodes.length - 1) {
-                currentPath.add(i, nodes[i]);
-                final String joinedPath = Joiner.on(",").skipNulls().join(currentPath).replace(",", ".");
-                defaultNodes.put(joinedPath, null);
-            } else {
-                defaultNodes.put(path, value);
-            }
-        }
-        this.save();
-        this.load();
+        defaultNodes.put(path, value);
+        this.applyDefaultNode(path, value);
+        this.saveIfDirty();
     }
 
     /**
@@ -153,4 +236,51 @@ public class Storage {
     public CommentedConfigurationNode getChildNode(String path) {
         return rootNode.getNode((Object[]) path.split("\\."));
     }
+
+    private void applyDefaultNode(String path, Object value) {
+        final CommentedConfigurationNode node = getChildNode(path);
+        if (value != null && node.getValue() == null) {
+            node.setValue(value);
+            dirty = true;
+        }
+    }
+
+    private Path getTemporaryPath() {
+        final Path target = configuration.toPath();
+        return target.resolveSibling(target.getFileName() + ".tmp");
+    }
+
+    private void write(CommentedConfigurationNode node) {
+        final Path target = configuration.toPath();
+        final Path temporary = this.getTemporaryPath();
+        try {
+            temporaryLoader.save(node);
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            // Moving keeps the modified time of the temporary file. Expect it before the move, a watcher event arriving right after the
+            // move would otherwise take this save for an external change and reload it.
+            final FileTime previousModifiedTime = lastKnownModifiedTime;
+            lastKnownModifiedTime = Files.getLastModifiedTime(temporary);
+            try {
+                try {
+                    Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } catch (IOException e) {
+                lastKnownModifiedTime = previousModifiedTime;
+                throw e;
+            }
+        } catch (IOException e) {
+            logger.error("Unable to save configuration!", e);
+        }
+    }
+
+    private Storage saveIfDirty() {
+        if (batchDepth == 0 && dirty) {
+            this.save();
+        }
+        return this;
+    }
 }
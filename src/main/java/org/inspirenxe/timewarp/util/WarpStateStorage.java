@@ -0,0 +1,201 @@
+/*
+ * This file is part of TimeWarp, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) InspireNXE <http://github.com/InspireNXE/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.inspirenxe.timewarp.util;
+
+import com.google.common.collect.Maps;
+import org.inspirenxe.timewarp.daypart.DayPartType;
+import org.inspirenxe.timewarp.engine.WarpState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.spongepowered.api.plugin.PluginContainer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+
+/**
+ * Reads and writes {@link WarpState}s as small fixed size binary files.
+ * <p>Saves hand the state to a background writer, saves of the same file made before it gets to run are coalesced into a single write.
+ * Files are written to a temporary file first and then moved into place, so a crash never leaves a torn state behind.</p>
+ */
+public class WarpStateStorage {
+
+    /**
+     * The name of the state file in every world directory.
+     */
+    public static final String FILE_NAME = "timewarp.dat";
+
+    private static final int MAGIC = 0x54575250;
+    private static final byte VERSION = 1;
+    /**
+     * Magic, version, world time, cycle, daypart ordinal, remainder and the CRC32 of everything before it.
+     */
+    private static final int SIZE = 4 + 1 + 8 + 8 + 1 + 8 + 8;
+    private static final DayPartType[] TYPES = DayPartType.values();
+
+    private final Logger logger;
+    private final ExecutorService writer;
+    private final Map<Path, WarpState> pendingWrites = Maps.newConcurrentMap();
+    private Future<?> lastWrite;
+
+    public WarpStateStorage(PluginContainer container) {
+        logger = LoggerFactory.getLogger(container.getName() + " - Warp State");
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, container.getName() + " - Warp State Writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Reads a state file.
+     * @param path The path of the file.
+     * @return The {@link WarpState}, {@link Optional#empty()} if the file does not exist or can not be used.
+     */
+    public Optional<WarpState> load(Path path) {
+        final ByteBuffer buffer = ByteBuffer.allocate(SIZE);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+                // Keep reading until the buffer is full or the file ends
+            }
+        } catch (NoSuchFileException e) {
+            return Optional.empty();
+        } catch (IOException e) {
+            logger.error("Unable to read warp state from [" + path + "]!", e);
+            return Optional.empty();
+        }
+        buffer.flip();
+        try {
+            return Optional.of(decode(buffer));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Unable to use warp state from [" + path + "] as " + e.getMessage() + ".");
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Encodes a state into the layout of a state file.
+     * @param state The {@link WarpState}.
+     * @return A buffer holding the file, positioned at its start.
+     */
+    static ByteBuffer encode(WarpState state) {
+        final ByteBuffer buffer = ByteBuffer.allocate(SIZE);
+        buffer.putInt(MAGIC).put(VERSION).putLong(state.worldTime).putLong(state.cycle)
+                .put((byte) (state.dayPartType == null ? -1 : state.dayPartType.ordinal())).putLong(state.remainder);
+        final CRC32 crc = new CRC32();
+        crc.update(buffer.array(), 0, buffer.position());
+        buffer.putLong(crc.getValue());
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Decodes a state from the layout of a state file.
+     * @param buffer A heap buffer holding the file, positioned at its start.
+     * @return The {@link WarpState}.
+     * @throws IllegalArgumentException If the buffer is not a state file of this version or is corrupt.
+     */
+    static WarpState decode(ByteBuffer buffer) {
+        final int start = buffer.position();
+        if (buffer.remaining() != SIZE || buffer.getInt() != MAGIC || buffer.get() != VERSION) {
+            throw new IllegalArgumentException("it is not a version " + VERSION + " state file");
+        }
+        final CRC32 crc = new CRC32();
+        crc.update(buffer.array(), buffer.arrayOffset() + start, SIZE - 8);
+        final long worldTime = buffer.getLong();
+        final long cycle = buffer.getLong();
+        final byte ordinal = buffer.get();
+        final long remainder = buffer.getLong();
+        if (buffer.getLong() != crc.getValue() || ordinal < -1 || ordinal >= TYPES.length) {
+            throw new IllegalArgumentException("it is corrupt");
+        }
+        return new WarpState(worldTime, cycle, ordinal == -1 ? null : TYPES[ordinal], remainder);
+    }
+
+    /**
+     * Saves a state file through the background writer.
+     * @param path The path of the file.
+     * @param state The {@link WarpState}.
+     */
+    public void save(Path path, WarpState state) {
+        if (this.pendingWrites.put(path, state) == null) {
+            lastWrite = writer.submit(() -> {
+                final WarpState pending = this.pendingWrites.remove(path);
+                if (pending != null) {
+                    this.write(path, pending);
+                }
+            });
+        }
+    }
+
+    /**
+     * Blocks until all pending saves have been written.
+     */
+    public void flush() {
+        if (lastWrite != null) {
+            try {
+                lastWrite.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                logger.error("Unable to save warp state!", e.getCause());
+            }
+        }
+    }
+
+    private void write(Path target, WarpState state) {
+        final ByteBuffer buffer = encode(state);
+        final Path temporary = target.resolveSibling(target.getFileName() + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            try {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            logger.error("Unable to save warp state to [" + target + "]!", e);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * This file is part of TimeWarp, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) InspireNXE <http://github.com/InspireNXE/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.inspirenxe.timewarp.world;
+
+import org.inspirenxe.timewarp.daypart.DayPartType;
+
+/**
+ * The daypart lengths of a single day, as read by {@link org.inspirenxe.timewarp.engine.WorldClock} while ticking.
+ */
+public interface DaySchedule {
+
+    /**
+     * Gets the {@link DayPartType} at the time of day.
+     * @param time The vanilla time of day, in the range [0, {@link DayPartType#DEFAULT_DAY_LENGTH}).
+     * @return The {@link DayPartType}.
+     */
+    default DayPartType getType(long time) {
+        return DayPartType.fromTime(time);
+    }
+
+    /**
+     * Gets the custom length of the daypart.
+     * @param type The {@link DayPartType}.
+     * @return The custom length, zero if the daypart is skipped.
+     */
+    long getLength(DayPartType type);
+
+    /**
+     * Determines if the daypart is skipped, that is it has a length of zero.
+     * @param type The {@link DayPartType}.
+     * @return True if skipped, false if not.
+     */
+    default boolean isSkipped(DayPartType type) {
+        return this.getLength(type) == 0;
+    }
+
+    /**
+     * Determines if the daypart lasts longer than in vanilla Minecraft.
+     * @param type The {@link DayPartType}.
+     * @return True if stretched, false if not.
+     */
+    default boolean isStretched(DayPartType type) {
+        return this.getLength(type) > type.defaultLength;
+    }
+
+    /**
+     * Gets the next {@link DayPartType} with a length that is not equal to 0.
+     * @param type The current {@link DayPartType}.
+     * @return The next available {@link DayPartType}, which may be the current one, or null if every daypart is skipped.
+     */
+    DayPartType getNextType(DayPartType type);
+
+    /**
+     * Gets the vanilla ticks between the time of day and the start of the next daypart with a length that is not equal to 0.
+     * @param time The vanilla time of day, in the range [0, {@link DayPartType#DEFAULT_DAY_LENGTH}).
+     * @return The vanilla ticks to skip, or -1 if every daypart is skipped.
+     */
+    default long getSkipDistance(long time) {
+        final DayPartType next = this.getNextType(DayPartType.fromTime(time));
+        if (next == null) {
+            return -1;
+        }
+        return Math.floorMod(next.defaultStartTime - time, DayPartType.DEFAULT_DAY_LENGTH);
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * This file is part of TimeWarp, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) InspireNXE <http://github.com/InspireNXE/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.inspirenxe.timewarp.world;
+
+import org.inspirenxe.timewarp.api.TimeSnapshot;
+import org.inspirenxe.timewarp.daypart.DayPartType;
+import org.inspirenxe.timewarp.engine.WorldClock;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The time of a single world, published by its tick on the main thread and read as a {@link TimeSnapshot} from any thread.
+ * <p>The tick builds one immutable {@link TimeSnapshot} whenever the time changed and hands it over through a volatile reference, so
+ * readers only ever do a single volatile read and never allocate, however many of them there are.</p>
+ */
+public final class PublishedTime {
+
+    private volatile TimeSnapshot snapshot;
+
+    /**
+     * Publishes the time of the world, unless it did not change since it was last published. Only called from the main thread.
+     * @param worldUniqueId The unique id of the world.
+     * @param worldName The name of the world.
+     * @param worldTime The vanilla world time.
+     * @param clock The {@link WorldClock} the time was stepped with, null to use vanilla lengths.
+     */
+    public void publish(UUID worldUniqueId, String worldName, long worldTime, WorldClock clock) {
+        final long warpedTime = clock == null ? worldTime + WarpSchedule.CYCLE_OFFSET : clock.getWarpedTime(worldTime);
+        final TimeSnapshot previous = this.snapshot;
+        if (previous != null && previous.getVanillaTime() == worldTime && previous.getWarpedTime() == warpedTime) {
+            return;
+        }
+        final DayPartType type = DayPartType.fromTime(worldTime % DayPartType.DEFAULT_DAY_LENGTH);
+        this.snapshot = new TimeSnapshot(worldUniqueId, worldName, worldTime, warpedTime, type,
+                clock == null ? getVanillaElapsed(worldTime, type) : clock.getDayPartElapsed(worldTime),
+                clock == null ? type.defaultLength : clock.getDayPartLength(worldTime), worldTime / DayPartType.DEFAULT_DAY_LENGTH);
+    }
+
+    /**
+     * Gets the time last published. Safe to call from any thread.
+     * @return The {@link TimeSnapshot}, {@link Optional#empty()} if nothing was published yet.
+     */
+    public Optional<TimeSnapshot> getSnapshot() {
+        final TimeSnapshot snapshot = this.snapshot;
+        return snapshot == null ? Optional.empty() : snapshot.asOptional();
+    }
+
+    private static long getVanillaElapsed(long worldTime, DayPartType type) {
+        return Math.floorMod(worldTime % DayPartType.DEFAULT_DAY_LENGTH - type.defaultStartTime, DayPartType.DEFAULT_DAY_LENGTH);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * This file is part of TimeWarp, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) InspireNXE <http://github.com/InspireNXE/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.inspirenxe.timewarp.world;
+
+import org.inspirenxe.timewarp.config.GroupSettings;
+import org.inspirenxe.timewarp.daypart.DayPartType;
+import org.inspirenxe.timewarp.engine.SharedClock;
+
+import java.util.Optional;
+
+/**
+ * A schedule shared by every world that references the group, compiled once for all of them.
+ */
+public final class ScheduleGroup {
+
+    /**
+     * The lower case name of the group.
+     */
+    public final String name;
+    private final GroupSettings settings;
+    private final WorldTimeline timeline;
+    private final Optional<WorldCalendar> calendar;
+    private final Optional<SharedClock> sharedClock;
+
+    public ScheduleGroup(GroupSettings settings) {
+        this(settings, null);
+    }
+
+    /**
+     * Creates a group that follows a {@link WorldCalendar}.
+     * @param settings The {@link GroupSettings}.
+     * @param calendar The {@link WorldCalendar} the group follows, null if none.
+     */
+    public ScheduleGroup(GroupSettings settings, WorldCalendar calendar) {
+        this.name = settings.name;
+        this.settings = settings;
+        final long[] lengths = new long[DayPartType.values().length];
+        for (DayPartType type : DayPartType.values()) {
+            lengths[type.ordinal()] = settings.getLength(type);
+        }
+        this.timeline = new WorldTimeline(lengths);
+        this.calendar = Optional.ofNullable(calendar);
+        this.sharedClock = settings.sharedClock ? Optional.of(new SharedClock(this.timeline, calendar)) : Optional.empty();
+    }
+
+    /**
+     * Gets the {@link GroupSettings} this was built from.
+     * @return The {@link GroupSettings}.
+     */
+    public GroupSettings getSettings() {
+        return this.settings;
+    }
+
+    /**
+     * Gets the {@link WorldTimeline} shared by every world in the group.
+     * @return The {@link WorldTimeline}.
+     */
+    public WorldTimeline getTimeline() {
+        return this.timeline;
+    }
+
+    /**
+     * Gets the {@link WorldCalendar} the group follows.
+     * @return The {@link WorldCalendar} if the group follows a calendar, otherwise {@link Optional#empty()}.
+     */
+    public Optional<WorldCalendar> getCalendar() {
+        return this.calendar;
+    }
+
+    /**
+     * Gets the {@link SharedClock} of the group.
+     * @return The {@link SharedClock} if the worlds in the group share one clock, otherwise {@link Optional#empty()}.
+     */
+    public Optional<SharedClock> getSharedClock() {
+        return this.sharedClock;
+    }
+}
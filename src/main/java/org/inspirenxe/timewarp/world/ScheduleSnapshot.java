@@ -0,0 +1,165 @@
+/*
+ * This file is part of TimeWarp, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) InspireNXE <http://github.com/InspireNXE/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.inspirenxe.timewarp.world;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import org.inspirenxe.timewarp.config.SyncSettings;
+import org.spongepowered.api.world.DimensionType;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * An immutable snapshot of the configuration and every {@link WorldDay} built from it.
+ * <p>Snapshots are built off the main thread on reload and published all at once, worlds pick up the new snapshot on their next
+ * tick.</p>
+ */
+public final class ScheduleSnapshot {
+
+    /**
+     * The snapshot in use before the configuration has been loaded, no world is warped.
+     */
+    public static final ScheduleSnapshot EMPTY = new ScheduleSnapshot(0, SyncSettings.DEFAULT, ImmutableSet.of(), ImmutableMap.of(),
+            ImmutableMap.of(), ImmutableMap.of());
+
+    /**
+     * The generation of this snapshot, incremented every time the configuration is reloaded.
+     */
+    public final int generation;
+    private final SyncSettings settings;
+    private final Set<DimensionType> dimensionTypes;
+    private final long timePacketResyncInterval;
+    private final long maxCatchUpTicks;
+    private final long fastForwardPacketInterval;
+    private final Map<String, WorldCalendar> calendars;
+    private final Map<String, ScheduleGroup> groups;
+    private final Map<String, WorldDay> worldDays;
+
+    public ScheduleSnapshot(int generation, SyncSettings settings, Set<DimensionType> dimensionTypes, Map<String, WorldCalendar> calendars,
+            Map<String, ScheduleGroup> groups, Map<String, WorldDay> worldDays) {
+        this.generation = generation;
+        this.settings = settings;
+        this.dimensionTypes = ImmutableSet.copyOf(dimensionTypes);
+        this.timePacketResyncInterval = settings.getTimePacketResyncInterval();
+        this.maxCatchUpTicks = settings.isLagCompensation() ? settings.getMaxCatchUpTicks() : 0L;
+        this.fastForwardPacketInterval = settings.getFastForwardPacketInterval();
+        this.calendars = ImmutableMap.copyOf(calendars);
+        this.groups = ImmutableMap.copyOf(groups);
+        this.worldDays = ImmutableMap.copyOf(worldDays);
+    }
+
+    /**
+     * Gets the {@link SyncSettings} this snapshot was built from.
+     * @return The {@link SyncSettings}.
+     */
+    public SyncSettings getSettings() {
+        return this.settings;
+    }
+
+    /**
+     * Gets the supported {@link DimensionType}s.
+     * @return An immutable set of allowed {@link DimensionType}.
+     */
+    public Set<DimensionType> getDimensionTypes() {
+        return this.dimensionTypes;
+    }
+
+    /**
+     * Gets the maximum amount of ticks between time update packets sent to players in warped worlds.
+     * @return The resync interval in ticks, zero or below to only send packets when clients are out of sync.
+     */
+    public long getTimePacketResyncInterval() {
+        return this.timePacketResyncInterval;
+    }
+
+    /**
+     * Gets the maximum amount of ticks warped time advances by in a single server tick to keep up with real time.
+     * @return The maximum ticks, zero if lag compensation is disabled.
+     */
+    public long getMaxCatchUpTicks() {
+        return this.maxCatchUpTicks;
+    }
+
+    /**
+     * Gets the minimum amount of ticks between time update packets sent to players in worlds fast forwarding through the night.
+     * @return The fast forward interval in ticks.
+     */
+    public long getFastForwardPacketInterval() {
+        return this.fastForwardPacketInterval;
+    }
+
+    /**
+     * Gets a {@link WorldCalendar}.
+     * @param name The name of the calendar, case insensitive.
+     * @return The {@link WorldCalendar} if the calendar is configured, otherwise {@link Optional#empty()}.
+     */
+    public Optional<WorldCalendar> getCalendar(String name) {
+        return Optional.ofNullable(this.calendars.get(name.toLowerCase()));
+    }
+
+    /**
+     * Gets every {@link WorldCalendar} keyed by lower case calendar name.
+     * @return An immutable map of {@link WorldCalendar}s.
+     */
+    public Map<String, WorldCalendar> getCalendars() {
+        return this.calendars;
+    }
+
+    /**
+     * Gets a {@link ScheduleGroup}.
+     * @param name The name of the group, case insensitive.
+     * @return The {@link ScheduleGroup} if the group is configured, otherwise {@link Optional#empty()}.
+     */
+    public Optional<ScheduleGroup> getGroup(String name) {
+        return Optional.ofNullable(this.groups.get(name.toLowerCase()));
+    }
+
+    /**
+     * Gets every {@link ScheduleGroup} keyed by lower case group name.
+     * @return An immutable map of {@link ScheduleGroup}s.
+     */
+    public Map<String, ScheduleGroup> getGroups() {
+        return this.groups;
+    }
+
+    /**
+     * Gets the {@link WorldDay} for a world that is enabled in this snapshot.
+     * @param worldName The name of the world, case insensitive.
+     * @return The {@link WorldDay} if the world is enabled, otherwise {@link Optional#empty()}.
+     */
+    public Optional<WorldDay> getWorldDay(String worldName) {
+        return Optional.ofNullable(this.worldDays.get(worldName.toLowerCase()));
+    }
+
+    /**
+     * Gets every enabled {@link WorldDay} keyed by lower case world name.
+     * @return An immutable map of {@link WorldDay}s.
+     */
+    public Map<String, WorldDay> getWorldDays() {
+        return this.worldDays;
+    }
+}
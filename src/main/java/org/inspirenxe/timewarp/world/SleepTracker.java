@@ -0,0 +1,199 @@
+/*
+ * This file is part of TimeWarp, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) InspireNXE <http://github.com/InspireNXE/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.inspirenxe.timewarp.world;
+
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Counts the players in every world and the ones among them that are sleeping. Counts are kept up to date from sleeping, connection,
+ * game mode and world change events so they never have to be rebuilt from the players of a world. Players that are ignored, such as
+ * spectators, are left out of both counts as vanilla Minecraft does, see {@link SleepTracker#setIgnored(UUID, UUID, boolean)}. Must
+ * only be used on the main thread.
+ */
+public final class SleepTracker {
+
+    private final Map<UUID, WorldSleep> worlds = Maps.newHashMap();
+
+    /**
+     * Adds a player to a world.
+     * @param worldUniqueId The unique id of the world.
+     * @param playerUniqueId The unique id of the player.
+     */
+    public void addPlayer(UUID worldUniqueId, UUID playerUniqueId) {
+        this.worlds.computeIfAbsent(worldUniqueId, id -> new WorldSleep()).players.add(playerUniqueId);
+    }
+
+    /**
+     * Removes a player from a world, the player stops sleeping there.
+     * @param worldUniqueId The unique id of the world.
+     * @param playerUniqueId The unique id of the player.
+     */
+    public void removePlayer(UUID worldUniqueId, UUID playerUniqueId) {
+        final WorldSleep world = this.worlds.get(worldUniqueId);
+        if (world != null) {
+            world.players.remove(playerUniqueId);
+            world.sleeping.remove(playerUniqueId);
+            world.ignored.remove(playerUniqueId);
+        }
+    }
+
+    /**
+     * Sets whether a player in a world is left out of the counts. Players that are not in the world are left as they are.
+     * @param worldUniqueId The unique id of the world.
+     * @param playerUniqueId The unique id of the player.
+     * @param ignored True to leave the player out, false to count them.
+     */
+    public void setIgnored(UUID worldUniqueId, UUID playerUniqueId, boolean ignored) {
+        final WorldSleep world = this.worlds.get(worldUniqueId);
+        if (world == null || !world.players.contains(playerUniqueId)) {
+            return;
+        }
+        if (ignored) {
+            world.ignored.add(playerUniqueId);
+        } else {
+            world.ignored.remove(playerUniqueId);
+        }
+    }
+
+    /**
+     * Marks a player in a world as sleeping.
+     * @param worldUniqueId The unique id of the world.
+     * @param playerUniqueId The unique id of the player.
+     */
+    public void startSleeping(UUID worldUniqueId, UUID playerUniqueId) {
+        final WorldSleep world = this.worlds.computeIfAbsent(worldUniqueId, id -> new WorldSleep());
+        world.players.add(playerUniqueId);
+        world.sleeping.add(playerUniqueId);
+    }
+
+    /**
+     * Marks a player in a world as awake.
+     * @param worldUniqueId The unique id of the world.
+     * @param playerUniqueId The unique id of the player.
+     */
+    public void stopSleeping(UUID worldUniqueId, UUID playerUniqueId) {
+        final WorldSleep world = this.worlds.get(worldUniqueId);
+        if (world != null) {
+            world.sleeping.remove(playerUniqueId);
+        }
+    }
+
+    /**
+     * Removes a world along with its counts.
+     * @param worldUniqueId The unique id of the world.
+     */
+    public void removeWorld(UUID worldUniqueId) {
+        this.worlds.remove(worldUniqueId);
+    }
+
+    /**
+     * Gets the amount of players in a world that are counted.
+     * @param worldUniqueId The unique id of the world.
+     * @return The players.
+     */
+    public int getPlayers(UUID worldUniqueId) {
+        final WorldSleep world = this.worlds.get(worldUniqueId);
+        return world == null ? 0 : world.players.size() - world.ignored.size();
+    }
+
+    /**
+     * Gets the amount of sleeping players in a world that are counted.
+     * @param worldUniqueId The unique id of the world.
+     * @return The sleeping players.
+     */
+    public int getSleeping(UUID worldUniqueId) {
+        final WorldSleep world = this.worlds.get(worldUniqueId);
+        return world == null ? 0 : world.getSleeping();
+    }
+
+    /**
+     * Gets whether enough players in a world sleep to skip the night.
+     * @param worldUniqueId The unique id of the world.
+     * @param percentage The percentage of players that have to sleep, from 1 to 100.
+     * @return True if at least one player sleeps and the sleeping players make up the percentage, false if not.
+     */
+    public boolean isThresholdMet(UUID worldUniqueId, int percentage) {
+        final WorldSleep world = this.worlds.get(worldUniqueId);
+        if (world == null) {
+            return false;
+        }
+        final int sleeping = world.getSleeping();
+        return sleeping > 0 && sleeping * 100L >= (long) percentage * (world.players.size() - world.ignored.size());
+    }
+
+    /**
+     * Marks a world as waiting to wake up its players, so only one wake up is ever pending.
+     * @param worldUniqueId The unique id of the world.
+     * @return True if the world was not already waiting, false if it was.
+     */
+    public boolean markWakePending(UUID worldUniqueId) {
+        final WorldSleep world = this.worlds.computeIfAbsent(worldUniqueId, id -> new WorldSleep());
+        if (world.wakePending) {
+            return false;
+        }
+        world.wakePending = true;
+        return true;
+    }
+
+    /**
+     * Clears the pending wake up of a world.
+     * @param worldUniqueId The unique id of the world.
+     */
+    public void clearWakePending(UUID worldUniqueId) {
+        final WorldSleep world = this.worlds.get(worldUniqueId);
+        if (world != null) {
+            world.wakePending = false;
+        }
+    }
+
+    private static final class WorldSleep {
+
+        final Set<UUID> players = Sets.newHashSet();
+        final Set<UUID> sleeping = Sets.newHashSet();
+        /**
+         * The players left out of the counts, every one of them is in {@link #players} as well.
+         */
+        final Set<UUID> ignored = Sets.newHashSet();
+        boolean wakePending;
+
+        int getSleeping() {
+            if (this.ignored.isEmpty()) {
+                return this.sleeping.size();
+            }
+            int sleeping = 0;
+            for (UUID playerUniqueId : this.sleeping) {
+                if (!this.ignored.contains(playerUniqueId)) {
+                    sleeping++;
+                }
+            }
+            return sleeping;
+        }
+    }
+}
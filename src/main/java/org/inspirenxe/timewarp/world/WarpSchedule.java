@@ -0,0 +1,99 @@
+/*
+ * This file is part of TimeWarp, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) InspireNXE <http://github.com/InspireNXE/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.inspirenxe.timewarp.world;
+
+import org.inspirenxe.timewarp.daypart.DayPartType;
+
+/**
+ * The daypart lengths of every cycle, used to convert between vanilla time and warped time in constant time.
+ * <p>A cycle is one run of every daypart starting at {@link DayPartType#MORNING}, cycle 0 starts at vanilla time
+ * {@link DayPartType#MORNING} of the day before the world was created. Warped time counts the server ticks spent in every cycle before
+ * it, so jumping by any amount of warped time never needs to step through the cycles in between.</p>
+ * <p>Calendars look their lengths up by cycle rather than by days passed, a morning that starts before midnight already belongs to
+ * the next day.</p>
+ */
+public interface WarpSchedule {
+
+    /**
+     * The vanilla ticks between the start of a cycle and the start of the vanilla day that shares its index.
+     */
+    long CYCLE_OFFSET = DayPartType.DEFAULT_DAY_LENGTH - DayPartType.MORNING.defaultStartTime;
+
+    /**
+     * Gets the cycle that contains a vanilla world time.
+     * @param worldTime The vanilla world time.
+     * @return The cycle.
+     */
+    static long getCycle(long worldTime) {
+        return Math.floorDiv(worldTime + CYCLE_OFFSET, DayPartType.DEFAULT_DAY_LENGTH);
+    }
+
+    /**
+     * Gets the vanilla world time at which a daypart starts in a cycle.
+     * @param cycle The cycle.
+     * @param type The {@link DayPartType}.
+     * @return The vanilla world time.
+     */
+    static long getVanillaStart(long cycle, DayPartType type) {
+        return cycle * DayPartType.DEFAULT_DAY_LENGTH - CYCLE_OFFSET
+                + Math.floorMod(type.defaultStartTime + CYCLE_OFFSET, DayPartType.DEFAULT_DAY_LENGTH);
+    }
+
+    /**
+     * Gets the length of a daypart in a cycle.
+     * @param cycle The cycle.
+     * @param type The {@link DayPartType}.
+     * @return The length, zero if the daypart is skipped.
+     */
+    long getLength(long cycle, DayPartType type);
+
+    /**
+     * Gets the warped time at which a cycle starts.
+     * @param cycle The cycle.
+     * @return The warped time.
+     */
+    long getWarpedStart(long cycle);
+
+    /**
+     * Gets the cycle that contains a warped time.
+     * @param warpedTime The warped time.
+     * @return The cycle.
+     */
+    long getCycleAt(long warpedTime);
+
+    /**
+     * Gets the amount of dayparts that are not skipped in every cycle before a cycle.
+     * @param cycle The cycle.
+     * @return The amount of dayparts.
+     */
+    long getDayPartStart(long cycle);
+
+    /**
+     * Gets the cycle that contains a daypart, counted like {@link WarpSchedule#getDayPartStart(long)}.
+     * @param dayPart The daypart.
+     * @return The cycle.
+     */
+    long getCycleAtDayPart(long dayPart);
+}
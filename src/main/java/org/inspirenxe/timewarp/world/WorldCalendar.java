@@ -0,0 +1,235 @@
+/*
+ * This file is part of TimeWarp, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) InspireNXE <http://github.com/InspireNXE/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.inspirenxe.timewarp.world;
+
+import org.inspirenxe.timewarp.config.CalendarSettings;
+import org.inspirenxe.timewarp.daypart.DayPartType;
+
+/**
+ * An immutable, compiled form of a seasonal calendar.
+ * <p>The daypart lengths of every day of the year are precompiled into a single primitive array indexed by day of the year times the
+ * amount of {@link DayPartType}s plus {@link DayPartType#ordinal()}, a 365 day year takes about 7 KB. Clocks read the calendar
+ * through a {@link Cursor}, which only moves an offset when the day rolls over. Prefix sums of the warped day lengths and dayparts
+ * take another 6 KB and let {@link WarpSchedule} lookups binary search a single year.</p>
+ * <p>Lengths between two keyframes are interpolated linearly. A daypart that is skipped at either keyframe keeps the length of the
+ * earlier keyframe until the next one, as lengths between zero and vanilla Minecraft length can not be used.</p>
+ */
+public final class WorldCalendar implements WarpSchedule {
+
+    private static final DayPartType[] TYPES = DayPartType.values();
+
+    /**
+     * The lower case name of the calendar.
+     */
+    public final String name;
+    private final CalendarSettings settings;
+    private final int yearLength;
+    private final int[] lengths;
+    /**
+     * The warped length of every day before a day of the year, the last entry is the warped length of the year.
+     */
+    private final long[] warpedPrefix;
+    /**
+     * The amount of dayparts that are not skipped in every day before a day of the year, the last entry is the amount in the year.
+     */
+    private final long[] dayPartPrefix;
+
+    public WorldCalendar(CalendarSettings settings) {
+        this.name = settings.name;
+        this.settings = settings;
+        this.yearLength = settings.yearLength;
+        this.lengths = new int[this.yearLength * TYPES.length];
+
+        final int keyframes = settings.getKeyframeCount();
+        int last = -1;
+        for (int day = 0; day < this.yearLength; day++) {
+            while (last + 1 < keyframes && settings.getKeyframeDay(last + 1) <= day) {
+                last++;
+            }
+            // Days before the first keyframe continue from the last keyframe of the previous year
+            final int previous = last == -1 ? keyframes - 1 : last;
+            final int next = (previous + 1) % keyframes;
+            final int span = keyframes == 1 ? this.yearLength
+                    : Math.floorMod(settings.getKeyframeDay(next) - settings.getKeyframeDay(previous), this.yearLength);
+            final int elapsed = Math.floorMod(day - settings.getKeyframeDay(previous), this.yearLength);
+
+            for (DayPartType type : TYPES) {
+                final long from = settings.getKeyframeLength(previous, type);
+                final long to = settings.getKeyframeLength(next, type);
+                final long length = from == 0 || to == 0 ? from : from + (to - from) * elapsed / span;
+                this.lengths[day * TYPES.length + type.ordinal()] = (int) Math.min(Integer.MAX_VALUE, length);
+            }
+        }
+
+        this.warpedPrefix = new long[this.yearLength + 1];
+        this.dayPartPrefix = new long[this.yearLength + 1];
+        for (int day = 0; day < this.yearLength; day++) {
+            long dayLength = 0;
+            int dayParts = 0;
+            for (int index = 0; index < TYPES.length; index++) {
+                final int length = this.lengths[day * TYPES.length + index];
+                dayLength += length;
+                dayParts += length == 0 ? 0 : 1;
+            }
+            this.warpedPrefix[day + 1] = this.warpedPrefix[day] + dayLength;
+            this.dayPartPrefix[day + 1] = this.dayPartPrefix[day] + dayParts;
+        }
+    }
+
+    /**
+     * Gets the {@link CalendarSettings} this was compiled from.
+     * @return The {@link CalendarSettings}.
+     */
+    public CalendarSettings getSettings() {
+        return this.settings;
+    }
+
+    /**
+     * Gets the amount of in-game days in a year.
+     * @return The year length.
+     */
+    public int getYearLength() {
+        return this.yearLength;
+    }
+
+    /**
+     * Gets the day of the year.
+     * @param daysPassed The days passed in the world.
+     * @return The day of the year.
+     */
+    public int getDayOfYear(long daysPassed) {
+        return (int) Math.floorMod(daysPassed, (long) this.yearLength);
+    }
+
+    /**
+     * Gets the length of a daypart on a day.
+     * @param daysPassed The days passed in the world.
+     * @param type The {@link DayPartType}.
+     * @return The length, zero if the daypart is skipped.
+     */
+    @Override
+    public long getLength(long daysPassed, DayPartType type) {
+        return this.lengths[this.getDayOfYear(daysPassed) * TYPES.length + type.ordinal()];
+    }
+
+    @Override
+    public long getWarpedStart(long cycle) {
+        return Math.floorDiv(cycle, (long) this.yearLength) * this.warpedPrefix[this.yearLength]
+                + this.warpedPrefix[this.getDayOfYear(cycle)];
+    }
+
+    @Override
+    public long getCycleAt(long warpedTime) {
+        final long years = Math.floorDiv(warpedTime, this.warpedPrefix[this.yearLength]);
+        final long remaining = warpedTime - years * this.warpedPrefix[this.yearLength];
+        return years * this.yearLength + this.findDay(this.warpedPrefix, remaining);
+    }
+
+    @Override
+    public long getDayPartStart(long cycle) {
+        return Math.floorDiv(cycle, (long) this.yearLength) * this.dayPartPrefix[this.yearLength]
+                + this.dayPartPrefix[this.getDayOfYear(cycle)];
+    }
+
+    @Override
+    public long getCycleAtDayPart(long dayPart) {
+        final long years = Math.floorDiv(dayPart, this.dayPartPrefix[this.yearLength]);
+        final long remaining = dayPart - years * this.dayPartPrefix[this.yearLength];
+        return years * this.yearLength + this.findDay(this.dayPartPrefix, remaining);
+    }
+
+    /**
+     * Finds the last day of the year whose prefix is not above a value.
+     * @param prefix The prefix sums.
+     * @param value The value, in the range [0, last prefix).
+     * @return The day of the year.
+     */
+    private int findDay(long[] prefix, long value) {
+        int low = 0;
+        int high = this.yearLength - 1;
+        while (low < high) {
+            final int middle = (low + high + 1) >>> 1;
+            if (prefix[middle] <= value) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Creates a new {@link Cursor} positioned on the first day of the year. Every clock needs its own cursor.
+     * @return The {@link Cursor}.
+     */
+    public Cursor newCursor() {
+        return new Cursor(this);
+    }
+
+    /**
+     * A movable view of one day of a {@link WorldCalendar}.
+     */
+    public static final class Cursor implements DaySchedule {
+
+        private final WorldCalendar calendar;
+        private int offset;
+
+        Cursor(WorldCalendar calendar) {
+            this.calendar = calendar;
+        }
+
+        /**
+         * Moves the cursor to a day in constant time without allocating.
+         * @param daysPassed The days passed in the world, clocks pass the cycle instead, see {@link WarpSchedule}.
+         */
+        public void moveTo(long daysPassed) {
+            this.offset = this.calendar.getDayOfYear(daysPassed) * TYPES.length;
+        }
+
+        /**
+         * Gets the {@link WorldCalendar} this cursor reads.
+         * @return The {@link WorldCalendar}.
+         */
+        public WorldCalendar getCalendar() {
+            return this.calendar;
+        }
+
+        @Override
+        public long getLength(DayPartType type) {
+            return this.calendar.lengths[this.offset + type.ordinal()];
+        }
+
+        @Override
+        public DayPartType getNextType(DayPartType type) {
+            for (int offset = 1; offset <= TYPES.length; offset++) {
+                final int candidate = (type.ordinal() + offset) % TYPES.length;
+                if (this.calendar.lengths[this.offset + candidate] != 0) {
+                    return TYPES[candidate];
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -24,11 +24,10 @@
  */
 package org.inspirenxe.timewarp.world;
 
-import org.inspirenxe.timewarp.TimeWarp;
+import org.inspirenxe.timewarp.config.WorldSettings;
 import org.inspirenxe.timewarp.daypart.DayPart;
 import org.inspirenxe.timewarp.daypart.DayPartType;
-import org.spongepowered.api.Sponge;
-import org.spongepowered.api.world.storage.WorldProperties;
+import org.inspirenxe.timewarp.engine.RealTimeClock;
 
 import java.util.Optional;
 
@@ -38,51 +37,87 @@ public class WorldDay {
      * The name of the world linked to this group.
      */
     public final String worldName;
+    private final WorldSettings settings;
+    private final Optional<ScheduleGroup> group;
+    private final Optional<RealTimeClock> realTimeClock;
+    private final Optional<WorldCalendar> calendar;
     /**
-     * 0 = MORNING
-     * 1 = DAY
-     * 2 = EVENING
-     * 3 = NIGHT
+     * Indexed by {@link DayPartType#ordinal()}.
      */
-    private final DayPart[] dayparts = new DayPart[5];
+    private final DayPart[] dayparts = new DayPart[DayPartType.values().length];
+    /**
+     * The {@link Optional}s returned by {@link WorldDay#getDayPart(DayPartType)}, kept so lookups on the tick path do not allocate.
+     * Indexed by {@link DayPartType#ordinal()}.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private final Optional<DayPart>[] optionalDayparts = new Optional[DayPartType.values().length];
+    private WorldTimeline timeline;
     private DayPartType wakeAtDayPart;
-    private long daysPassed = 0;
 
-    public WorldDay(String worldName) {
-        this.worldName = worldName;
+    public WorldDay(WorldSettings settings) {
+        this(settings, null, null, null);
+    }
+
+    /**
+     * Creates a {@link WorldDay} for a world that belongs to a {@link ScheduleGroup}, follows real time or follows a calendar.
+     * @param settings The {@link WorldSettings} of the world.
+     * @param group The {@link ScheduleGroup} the world belongs to, null if none.
+     * @param realTimeClock The {@link RealTimeClock} the world follows, null if time is warped instead.
+     * @param calendar The {@link WorldCalendar} the world follows, null if the dayparts are fixed.
+     */
+    public WorldDay(WorldSettings settings, ScheduleGroup group, RealTimeClock realTimeClock, WorldCalendar calendar) {
+        this.worldName = settings.worldName;
+        this.settings = settings;
+        this.group = Optional.ofNullable(group);
+        this.realTimeClock = Optional.ofNullable(realTimeClock);
+        this.calendar = Optional.ofNullable(calendar);
     }
 
     /**
-     * Initializes all dayparts.
+     * Initializes all dayparts and compiles the {@link WorldTimeline}, worlds in a {@link ScheduleGroup} use the timeline of the group.
      * @return {@link WorldDay} for chaining.
      */
     public WorldDay init() {
-        final Optional<WorldProperties> optProperties = Sponge.getServer().getWorldProperties(worldName);
-        if (optProperties.isPresent()) {
-            final String rootPath = "sync.worlds." + worldName.toLowerCase();
-            for (DayPartType type : DayPartType.values()) {
-                long daypartValue = TimeWarp.instance.storage.getChildNode(rootPath + ".dayparts." + type.name.toLowerCase()).getLong();
-                if (daypartValue != 0 && daypartValue < type.defaultLength) {
-                    TimeWarp.instance.logger.warn(String.format("Unable to use value [%1s] in [%2s] for DayPart [%3s] as the value is below "
-                            + "vanilla Minecraft length [%4s]. If you are trying to skip this DayPart please use 0 as the value.",
-                            daypartValue, rootPath, type.name, type.defaultLength));
-                    daypartValue = type.defaultLength;
-                }
-                this.setDayPart(type, new DayPart(type, daypartValue));
-            }
-            final String wakeAtPath = rootPath + ".wake-at-daypart";
-            final String dayPartCandidate = TimeWarp.instance.storage.getChildNode(wakeAtPath).getString(DayPartType.DAY.name.toUpperCase()).toUpperCase();
-            try {
-                wakeAtDayPart = DayPartType.valueOf(dayPartCandidate);
-            } catch (IllegalArgumentException e) {
-                TimeWarp.instance.logger.warn("Unable to parse [" + dayPartCandidate + "] at [" + wakeAtPath + "]. Defaulting to DayPart [" +
-                        DayPartType.DAY.name.toUpperCase() + "]");
-                wakeAtDayPart = DayPartType.valueOf(DayPartType.DAY.name.toUpperCase());
-            }
+        for (DayPartType type : DayPartType.values()) {
+            this.dayparts[type.ordinal()] = new DayPart(type, this.settings.getLength(type));
+        }
+        this.wakeAtDayPart = this.settings.wakeAtDayPart;
+        if (this.group.isPresent()) {
+            this.cacheDayParts();
+            this.timeline = this.group.get().getTimeline();
+        } else {
+            this.compile();
         }
         return this;
     }
 
+    /**
+     * Compiles the current daypart lengths into a new {@link WorldTimeline}.
+     */
+    private void compile() {
+        final long[] lengths = new long[this.dayparts.length];
+        for (DayPart daypart : this.dayparts) {
+            lengths[daypart.getType().ordinal()] = daypart.getLength();
+        }
+        this.cacheDayParts();
+        this.timeline = new WorldTimeline(lengths);
+    }
+
+    private void cacheDayParts() {
+        for (int i = 0; i < this.dayparts.length; i++) {
+            this.optionalDayparts[i] = Optional.ofNullable(this.dayparts[i]);
+        }
+    }
+
+    /**
+     * Gets the compiled {@link WorldTimeline}.
+     * <p>The timeline is compiled once by {@link WorldDay#init()}, changes made directly to a {@link DayPart} are not reflected.</p>
+     * @return The {@link WorldTimeline}.
+     */
+    public WorldTimeline getTimeline() {
+        return this.timeline;
+    }
+
     /**
      * Gets the {@link DayPart} from the {@link DayPartType}.
      * @param type The {@link DayPartType} to get the {@link DayPart} from.
@@ -93,13 +128,7 @@ public class WorldDay {
             return Optional.empty();
         }
 
-        for (DayPart daypart : dayparts) {
-            if (daypart.getType().equals(type)) {
-                return Optional.of(daypart);
-            }
-        }
-
-        return Optional.empty();
+        return this.optionalDayparts[type.ordinal()];
     }
 
     /**
@@ -112,44 +141,7 @@ public class WorldDay {
             return Optional.empty();
         }
 
-        // Attempt to find the next daypart excluding the current one
-        for (DayPart dayPart : dayparts) {
-            if (dayPart.getType() != type && dayPart.getLength() != 0) {
-                return Optional.of(dayPart);
-            }
-        }
-
-        // Attempt to return the current daypart
-        final Optional<DayPart> optDayPartCandidate = this.getDayPart(type);
-        if (optDayPartCandidate.isPresent() && optDayPartCandidate.get().getLength() != 0) {
-            return optDayPartCandidate;
-        }
-
-        return Optional.empty();
-    }
-
-    /**
-     * Sets the daypart stored to the {@link DayPart} passed in.
-     * @param type The {@link DayPartType} to set.
-     * @param daypart The {@link DayPart} to set to.
-     */
-    public void setDayPart(DayPartType type, DayPart daypart) {
-        switch (type) {
-            case DAY:
-                dayparts[1] = daypart;
-                break;
-            case EVENING:
-                dayparts[2] = daypart;
-                break;
-            case DUSK:
-                dayparts[3] = daypart;
-                break;
-            case NIGHT:
-                dayparts[4] = daypart;
-                break;
-            default:
-                dayparts[0] = daypart;
-        }
+        return this.getDayPart(this.timeline.getNextType(type));
     }
 
     /**
@@ -170,14 +162,7 @@ public class WorldDay {
      * @return The start time.
      */
     public long getStartTime(DayPartType type) {
-        long start = 0;
-        for (DayPart daypart : dayparts) {
-            if (type.equals(daypart.getType())) {
-                return start;
-            }
-            start += daypart.getLength();
-        }
-        return start;
+        return this.timeline.getStartTime(type);
     }
 
     /**
@@ -186,30 +171,41 @@ public class WorldDay {
      * @return The end time.
      */
     public long getEndTime(DayPartType type) {
-        long end = getDayLength();
-        for (int i = dayparts.length - 1; i > 0; i--) {
-            if (type.equals(dayparts[i].getType())) {
-                return end;
-            }
-            end -= dayparts[i].getLength();
-        }
-        return end;
+        return this.timeline.getEndTime(type);
+    }
+
+    /**
+     * Gets the {@link WorldSettings} this was built from.
+     * @return The {@link WorldSettings}.
+     */
+    public WorldSettings getSettings() {
+        return this.settings;
+    }
+
+    /**
+     * Gets the {@link ScheduleGroup} the world belongs to.
+     * @return The {@link ScheduleGroup} if the world references a group, otherwise {@link Optional#empty()}.
+     */
+    public Optional<ScheduleGroup> getGroup() {
+        return this.group;
     }
 
     /**
-     * Gets the current days passed in the world related to this.
-     * @return The current days passed.
+     * Gets the {@link RealTimeClock} the world follows.
+     * @return The {@link RealTimeClock} if time follows real time in the world, otherwise {@link Optional#empty()}.
      */
-    public long getDaysPassed() {
-        return this.daysPassed;
+    public Optional<RealTimeClock> getRealTimeClock() {
+        return this.realTimeClock;
     }
 
     /**
-     * Sets the current days passed.
-     * @param daysPassed The current days passed.
+     * Gets the {@link WorldCalendar} the world follows.
+     * <p>Daypart lengths then change with the day of the year, {@link WorldDay#getTimeline()} and {@link WorldDay#getDayPart(DayPartType)}
+     * only describe the fixed lengths configured for the world.</p>
+     * @return The {@link WorldCalendar} if the world follows a calendar, otherwise {@link Optional#empty()}.
      */
-    public void setDaysPassed(long daysPassed) {
-        this.daysPassed = daysPassed;
+    public Optional<WorldCalendar> getCalendar() {
+        return this.calendar;
     }
 
     /**
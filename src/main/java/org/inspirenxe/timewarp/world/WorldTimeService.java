@@ -0,0 +1,87 @@
+/*
+ * This file is part of TimeWarp, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) InspireNXE <http://github.com/InspireNXE/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.inspirenxe.timewarp.world;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.inspirenxe.timewarp.api.IMixinWorldServer;
+import org.inspirenxe.timewarp.api.TimeService;
+import org.inspirenxe.timewarp.api.TimeSnapshot;
+import org.spongepowered.api.world.World;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The {@link TimeService} of TimeWarp. Worlds are added when they load and removed when they unload on the main thread, every
+ * world publishes its time through its own {@link PublishedTime} once per tick, warped or not.
+ */
+public final class WorldTimeService implements TimeService {
+
+    private final Map<UUID, IMixinWorldServer> worldsById = Maps.newConcurrentMap();
+    private final Map<String, IMixinWorldServer> worldsByName = Maps.newConcurrentMap();
+
+    /**
+     * Adds a loaded world.
+     * @param world The {@link World}.
+     */
+    public void addWorld(World world) {
+        this.worldsById.put(world.getUniqueId(), (IMixinWorldServer) world);
+        this.worldsByName.put(world.getName().toLowerCase(), (IMixinWorldServer) world);
+    }
+
+    /**
+     * Removes an unloaded world.
+     * @param world The {@link World}.
+     */
+    public void removeWorld(World world) {
+        this.worldsById.remove(world.getUniqueId());
+        this.worldsByName.remove(world.getName().toLowerCase());
+    }
+
+    @Override
+    public Optional<TimeSnapshot> getSnapshot(UUID worldUniqueId) {
+        final IMixinWorldServer world = this.worldsById.get(worldUniqueId);
+        return world == null ? Optional.empty() : world.getTimeSnapshot();
+    }
+
+    @Override
+    public Optional<TimeSnapshot> getSnapshot(String worldName) {
+        final IMixinWorldServer world = this.worldsByName.get(worldName.toLowerCase());
+        return world == null ? Optional.empty() : world.getTimeSnapshot();
+    }
+
+    @Override
+    public Collection<TimeSnapshot> getSnapshots() {
+        final List<TimeSnapshot> snapshots = Lists.newArrayList();
+        for (IMixinWorldServer world : this.worldsById.values()) {
+            world.getTimeSnapshot().ifPresent(snapshots::add);
+        }
+        return snapshots;
+    }
+}
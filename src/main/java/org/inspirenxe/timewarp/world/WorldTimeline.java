@@ -0,0 +1,221 @@
+/*
+ * This file is part of TimeWarp, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) InspireNXE <http://github.com/InspireNXE/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.inspirenxe.timewarp.world;
+
+import org.inspirenxe.timewarp.daypart.DayPartType;
+
+/**
+ * An immutable, compiled form of a {@link WorldDay}'s daypart lengths.
+ * <p>All values are stored in primitive arrays indexed by {@link DayPartType#ordinal()} so that every lookup made while ticking
+ * a world is a constant-time array access. Dayparts are laid out in chronological order starting from {@link DayPartType#MORNING},
+ * which is also the order of {@link DayPartType#values()}.</p>
+ */
+public final class WorldTimeline implements DaySchedule, WarpSchedule {
+
+    private static final DayPartType[] TYPES = DayPartType.values();
+
+    /**
+     * The timeline of vanilla Minecraft, where every daypart has its default length.
+     */
+    public static final WorldTimeline VANILLA = new WorldTimeline(defaultLengths());
+
+    private final long[] lengths = new long[TYPES.length];
+    private final long[] warpedStarts = new long[TYPES.length];
+    private final long[] vanillaStarts = new long[TYPES.length];
+    private final int[] next = new int[TYPES.length];
+    private final long dayLength;
+    private final long dayParts;
+
+    /**
+     * Compiles a timeline from daypart lengths.
+     * @param lengths The custom length of each daypart, indexed by {@link DayPartType#ordinal()}.
+     */
+    public WorldTimeline(long[] lengths) {
+        long warpedStart = 0;
+        for (DayPartType type : TYPES) {
+            final int index = type.ordinal();
+            this.lengths[index] = Math.max(0, lengths[index]);
+            this.warpedStarts[index] = warpedStart;
+            this.vanillaStarts[index] = type.defaultStartTime;
+            warpedStart += this.lengths[index];
+        }
+        this.dayLength = warpedStart;
+
+        long dayParts = 0;
+        for (long length : this.lengths) {
+            if (length != 0) {
+                dayParts++;
+            }
+        }
+        this.dayParts = dayParts;
+
+        for (int index = 0; index < TYPES.length; index++) {
+            this.next[index] = -1;
+            for (int offset = 1; offset <= TYPES.length; offset++) {
+                final int candidate = (index + offset) % TYPES.length;
+                if (this.lengths[candidate] != 0) {
+                    this.next[index] = candidate;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the {@link DayPartType} at the time of day.
+     * @param time The vanilla time of day, in the range [0, {@link DayPartType#DEFAULT_DAY_LENGTH}).
+     * @return The {@link DayPartType}.
+     */
+    @Override
+    public DayPartType getType(long time) {
+        return DayPartType.fromTime(time);
+    }
+
+    /**
+     * Gets the custom length of the daypart.
+     * @param type The {@link DayPartType}.
+     * @return The custom length, zero if the daypart is skipped.
+     */
+    @Override
+    public long getLength(DayPartType type) {
+        return this.lengths[type.ordinal()];
+    }
+
+    /**
+     * Determines if the daypart is skipped, that is it has a length of zero.
+     * @param type The {@link DayPartType}.
+     * @return True if skipped, false if not.
+     */
+    @Override
+    public boolean isSkipped(DayPartType type) {
+        return this.lengths[type.ordinal()] == 0;
+    }
+
+    /**
+     * Gets the start of the daypart in warped time, relative to the start of {@link DayPartType#MORNING}.
+     * @param type The {@link DayPartType}.
+     * @return The warped start time.
+     */
+    public long getStartTime(DayPartType type) {
+        return this.warpedStarts[type.ordinal()];
+    }
+
+    /**
+     * Gets the end of the daypart in warped time, relative to the start of {@link DayPartType#MORNING}.
+     * @param type The {@link DayPartType}.
+     * @return The warped end time.
+     */
+    public long getEndTime(DayPartType type) {
+        return this.warpedStarts[type.ordinal()] + this.lengths[type.ordinal()];
+    }
+
+    /**
+     * Determines if the daypart lasts longer than in vanilla Minecraft.
+     * @param type The {@link DayPartType}.
+     * @return True if stretched, false if not.
+     */
+    @Override
+    public boolean isStretched(DayPartType type) {
+        return this.lengths[type.ordinal()] > type.defaultLength;
+    }
+
+    /**
+     * Gets the next {@link DayPartType} with a length that is not equal to 0.
+     * @param type The current {@link DayPartType}.
+     * @return The next available {@link DayPartType}, which may be the current one, or null if every daypart is skipped.
+     */
+    @Override
+    public DayPartType getNextType(DayPartType type) {
+        final int index = this.next[type.ordinal()];
+        return index == -1 ? null : TYPES[index];
+    }
+
+    /**
+     * Gets the vanilla ticks between the time of day and the start of the next daypart with a length that is not equal to 0.
+     * @param time The vanilla time of day, in the range [0, {@link DayPartType#DEFAULT_DAY_LENGTH}).
+     * @return The vanilla ticks to skip, or -1 if every daypart is skipped.
+     */
+    @Override
+    public long getSkipDistance(long time) {
+        final int index = this.next[DayPartType.fromTime(time).ordinal()];
+        if (index == -1) {
+            return -1;
+        }
+        return Math.floorMod(this.vanillaStarts[index] - time, DayPartType.DEFAULT_DAY_LENGTH);
+    }
+
+    /**
+     * Maps a vanilla time of day onto warped time, relative to the start of {@link DayPartType#MORNING}.
+     * @param time The vanilla time of day, in the range [0, {@link DayPartType#DEFAULT_DAY_LENGTH}).
+     * @return The warped time.
+     */
+    public long getWarpedTime(long time) {
+        final DayPartType type = DayPartType.fromTime(time);
+        final int index = type.ordinal();
+        final long elapsed = Math.floorMod(time - this.vanillaStarts[index], DayPartType.DEFAULT_DAY_LENGTH);
+        return this.warpedStarts[index] + elapsed * this.lengths[index] / type.defaultLength;
+    }
+
+    /**
+     * Gets the total day length using the length of all dayparts added together.
+     * @return The total day length.
+     */
+    public long getDayLength() {
+        return this.dayLength;
+    }
+
+    @Override
+    public long getLength(long cycle, DayPartType type) {
+        return this.lengths[type.ordinal()];
+    }
+
+    @Override
+    public long getWarpedStart(long cycle) {
+        return cycle * this.dayLength;
+    }
+
+    @Override
+    public long getCycleAt(long warpedTime) {
+        return this.dayLength == 0 ? 0 : Math.floorDiv(warpedTime, this.dayLength);
+    }
+
+    @Override
+    public long getDayPartStart(long cycle) {
+        return cycle * this.dayParts;
+    }
+
+    @Override
+    public long getCycleAtDayPart(long dayPart) {
+        return this.dayParts == 0 ? 0 : Math.floorDiv(dayPart, this.dayParts);
+    }
+
+    private static long[] defaultLengths() {
+        final long[] lengths = new long[DayPartType.values().length];
+        for (DayPartType type : DayPartType.values()) {
+            lengths[type.ordinal()] = type.defaultLength;
+        }
+        return lengths;
+    }
+}
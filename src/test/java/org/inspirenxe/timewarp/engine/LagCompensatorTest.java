@@ -0,0 +1,64 @@
+/*
+ * This file is part of TimeWarp, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) InspireNXE <http://github.com/InspireNXE/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.inspirenxe.timewarp.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+public class LagCompensatorTest {
+
+    private final Random random = new Random(0x54575250L);
+    private final LagCompensator compensator = new LagCompensator();
+
+    private long jitter() {
+        return this.random.nextInt(4_000_001) - 2_000_000L;
+    }
+
+    @Test
+    public void advancesSingleTicksWithJitter() {
+        for (int tick = 0; tick < 10_000; tick++) {
+            // Every tick ends within 2 ms of where it should at 20 ticks per second
+            assertEquals("Ticks advanced at tick [" + tick + "]", 1L,
+                    this.compensator.tick(tick * LagCompensator.TICK_NANOS + this.jitter(), 20L));
+        }
+    }
+
+    @Test
+    public void catchesUpWhileLagging() {
+        long nanos = 0L;
+        long total = 0L;
+        for (int tick = 0; tick < 10_000; tick++) {
+            // 12.5 ticks per second
+            nanos += LagCompensator.TICK_NANOS * 8 / 5 + this.jitter();
+            total += this.compensator.tick(nanos, 20L);
+        }
+        final long expected = nanos / LagCompensator.TICK_NANOS;
+        assertTrue("Advanced [" + total + "] ticks instead of [" + expected + "]", Math.abs(total - expected) <= 2L);
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * This file is part of TimeWarp, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) InspireNXE <http://github.com/InspireNXE/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.inspirenxe.timewarp.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assume.assumeTrue;
+
+import org.inspirenxe.timewarp.world.WarpScheduleTest;
+import org.inspirenxe.timewarp.world.WorldTimeline;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Guards the tick path against allocations creeping back in. A single allocation per tick costs at least 16 bytes, so the average
+ * over a long run has to stay below one byte per world tick. Publishing the time snapshot is left out, it builds one immutable
+ * snapshot whenever the time changed.
+ */
+public class TickAllocationTest {
+
+    private static final int WORLDS = 10;
+    private static final long DAYS = 50L;
+
+    @Test
+    public void tickPathDoesNotAllocate() {
+        final ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue("Measuring allocations is not supported by this JVM", bean instanceof com.sun.management.ThreadMXBean
+                && ((com.sun.management.ThreadMXBean) bean).isThreadAllocatedMemoryEnabled());
+        final com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) bean;
+        final long threadId = Thread.currentThread().getId();
+
+        final WorldTimeline timeline = new WorldTimeline(WarpScheduleTest.SKIPPED);
+        final TimeSimulator simulator = new TimeSimulator(timeline, WORLDS, 20L);
+        final long ticks = DAYS * timeline.getDayLength();
+        // The first run loads classes and compiles the loop, only the second one is measured
+        simulator.run(ticks);
+        final long start = allocationBean.getThreadAllocatedBytes(threadId);
+        final TimeSimulator.Result result = simulator.run(ticks);
+        final long allocated = allocationBean.getThreadAllocatedBytes(threadId) - start;
+        assertEquals("Bytes allocated per world tick, " + allocated + " over " + result.worldTicks + " world ticks", 0L,
+                allocated / result.worldTicks);
+    }
+}
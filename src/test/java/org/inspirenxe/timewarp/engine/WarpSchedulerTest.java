@@ -0,0 +1,98 @@
+/*
+ * This file is part of TimeWarp, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) InspireNXE <http://github.com/InspireNXE/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.inspirenxe.timewarp.engine;
+
+import static org.junit.Assert.assertEquals;
+
+import com.google.common.collect.Lists;
+import org.inspirenxe.timewarp.daypart.DayPartType;
+import org.junit.Test;
+
+import java.util.List;
+
+public class WarpSchedulerTest {
+
+    private final List<RuntimeException> errors = Lists.newArrayList();
+    private final WarpScheduler scheduler = new WarpScheduler(this.errors::add);
+
+    @Test
+    public void runsTasksWhenDue() {
+        final int[] runs = new int[3];
+        this.scheduler.schedule(10L, () -> runs[0]++);
+        this.scheduler.schedule(5L, 5L, () -> runs[1]++);
+        this.scheduler.schedule(3L, () -> runs[2]++).cancel();
+        this.scheduler.advance(9L);
+        assertEquals("Runs of the task due at 10", 0, runs[0]);
+        assertEquals("Runs of the task due at 5", 1, runs[1]);
+        assertEquals("Runs of the cancelled task", 0, runs[2]);
+        this.scheduler.advance(1L);
+        assertEquals("Runs of the task due at 10", 1, runs[0]);
+        assertEquals("Runs of the task repeating every 5", 2, runs[1]);
+    }
+
+    @Test
+    public void handsExceptionsToErrorHandler() {
+        final IllegalStateException exception = new IllegalStateException();
+        this.scheduler.schedule(1L, () -> {
+            throw exception;
+        });
+        this.scheduler.advance(1L);
+        assertEquals(Lists.newArrayList(exception), this.errors);
+    }
+
+    @Test
+    public void runsRepeatingTaskOncePerJump() {
+        final int[] runs = new int[1];
+        final WarpScheduler.Task repeating = this.scheduler.schedule(5L, 5L, () -> runs[0]++);
+        this.scheduler.advance(5L);
+        this.scheduler.advance(5L);
+        this.scheduler.advance(100L);
+        assertEquals("Runs of the repeating task", 3, runs[0]);
+        assertEquals("Deadline of the repeating task", 115L, repeating.getDeadline());
+        assertEquals(1, this.scheduler.getTaskCount());
+        repeating.cancel();
+        this.scheduler.advance(100L);
+        assertEquals("Runs of the cancelled task", 3, runs[0]);
+        assertEquals(0, this.scheduler.getTaskCount());
+    }
+
+    @Test
+    public void runsDayPartTasksAtTheirDayPart() {
+        final int[] runs = new int[2];
+        this.scheduler.scheduleAtDayPart(DayPartType.NIGHT, false, () -> runs[0]++);
+        final WarpScheduler.Task everyNight = this.scheduler.scheduleAtDayPart(DayPartType.NIGHT, true, () -> runs[1]++);
+        this.scheduler.onDayPart(DayPartType.DAY);
+        assertEquals("Runs at day of the task once at night", 0, runs[0]);
+        assertEquals("Runs at day of the task every night", 0, runs[1]);
+        this.scheduler.onDayPart(DayPartType.NIGHT);
+        this.scheduler.onDayPart(DayPartType.NIGHT);
+        assertEquals("Runs of the task once at night", 1, runs[0]);
+        assertEquals("Runs of the task every night", 2, runs[1]);
+        everyNight.cancel();
+        this.scheduler.onDayPart(DayPartType.NIGHT);
+        assertEquals("Runs of the cancelled task", 2, runs[1]);
+        assertEquals(0, this.scheduler.getTaskCount());
+    }
+}
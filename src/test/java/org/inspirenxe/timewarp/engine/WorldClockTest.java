@@ -0,0 +1,154 @@
+/*
+ * This file is part of TimeWarp, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) InspireNXE <http://github.com/InspireNXE/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.inspirenxe.timewarp.engine;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.inspirenxe.timewarp.daypart.DayPartType;
+import org.inspirenxe.timewarp.world.WarpSchedule;
+import org.inspirenxe.timewarp.world.WarpScheduleTest;
+import org.inspirenxe.timewarp.world.WorldCalendar;
+import org.inspirenxe.timewarp.world.WorldTimeline;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.function.Supplier;
+
+public class WorldClockTest {
+
+    private final Random random = new Random(0x54575250L);
+
+    @Test
+    public void stretchedDaysTakeTheirLength() {
+        checkStepping(WarpScheduleTest.STRETCHED);
+    }
+
+    @Test
+    public void skippingDaysTakeTheirLength() {
+        checkStepping(WarpScheduleTest.SKIPPED);
+    }
+
+    @Test
+    public void stretchedJumpsMatchTicking() {
+        final WorldTimeline timeline = new WorldTimeline(WarpScheduleTest.STRETCHED);
+        this.checkJumps(() -> new WorldClock(timeline), DayPartType.DEFAULT_DAY_LENGTH * 5, timeline.getDayLength());
+    }
+
+    @Test
+    public void skippingJumpsMatchTicking() {
+        final WorldTimeline timeline = new WorldTimeline(WarpScheduleTest.SKIPPED);
+        this.checkJumps(() -> new WorldClock(timeline), DayPartType.DEFAULT_DAY_LENGTH * 5, timeline.getDayLength());
+    }
+
+    @Test
+    public void calendarJumpsMatchTicking() {
+        final WorldCalendar calendar = WarpScheduleTest.createCalendar();
+        this.checkJumps(() -> {
+            final WorldClock clock = new WorldClock();
+            clock.setCalendar(calendar, 0L);
+            return clock;
+        }, calendar.getYearLength() * DayPartType.DEFAULT_DAY_LENGTH * 2,
+                calendar.getWarpedStart(calendar.getYearLength()) / calendar.getYearLength());
+    }
+
+    /**
+     * Ticks a clock through several days, checking every day takes exactly the configured length and the vanilla ticks within a
+     * stretched daypart are spread evenly.
+     */
+    private static void checkStepping(long[] lengths) {
+        final WorldTimeline timeline = new WorldTimeline(lengths);
+        final WorldClock clock = new WorldClock(timeline);
+        long worldTime = 0L;
+        long cycleStart = -1L;
+        long lastIncrement = -1L;
+        for (long tick = 0; tick < timeline.getDayLength() * 4; tick++) {
+            final long newWorldTime = clock.tick(worldTime);
+            if (WarpSchedule.getCycle(newWorldTime) != WarpSchedule.getCycle(worldTime)) {
+                if (cycleStart != -1L) {
+                    assertEquals("Ticks of the day ending at tick [" + tick + "]", timeline.getDayLength(), tick - cycleStart);
+                }
+                cycleStart = tick;
+            }
+            if (newWorldTime != worldTime) {
+                final DayPartType type = timeline.getType(newWorldTime % DayPartType.DEFAULT_DAY_LENGTH);
+                if (newWorldTime == worldTime + 1 && lastIncrement != -1L
+                        && type == timeline.getType(worldTime % DayPartType.DEFAULT_DAY_LENGTH)) {
+                    final long gap = tick - lastIncrement;
+                    final long length = timeline.getLength(type);
+                    assertTrue("Vanilla ticks in " + type + " were [" + gap + "] ticks apart",
+                            gap == length / type.defaultLength || gap == (length + type.defaultLength - 1) / type.defaultLength);
+                }
+                lastIncrement = tick;
+            }
+            worldTime = newWorldTime;
+        }
+    }
+
+    /**
+     * Checks jumping by warped ticks lands exactly where ticking does, rewinding returns to the same warped time and jumping to the
+     * next start of a daypart agrees with the warped ticks until it.
+     */
+    private void checkJumps(Supplier<WorldClock> clocks, long range, long dayLength) {
+        for (int run = 0; run < 200; run++) {
+            // Start where a clock that has been ticking rests, a clock reset to any vanilla time sits between two warped ticks
+            final WorldClock ticked = clocks.get();
+            final long randomTime = DayPartType.DEFAULT_DAY_LENGTH + (long) (this.random.nextDouble() * range);
+            long worldTime = WarpSchedule.getVanillaStart(WarpSchedule.getCycle(randomTime),
+                    DayPartType.fromTime(randomTime % DayPartType.DEFAULT_DAY_LENGTH));
+            ticked.reset(worldTime);
+            final long warmUp = (long) (this.random.nextDouble() * dayLength);
+            for (long tick = 0; tick < warmUp || ticked.getDayPartLength(worldTime) == 0L; tick++) {
+                worldTime = ticked.tick(worldTime);
+            }
+            final WarpState state = ticked.capture(worldTime);
+            final long start = ticked.getWarpedTime(worldTime);
+            final long ticks = (long) (this.random.nextDouble() * dayLength * 3);
+            long tickedTime = worldTime;
+            for (long tick = 0; tick < ticks; tick++) {
+                tickedTime = ticked.tick(tickedTime);
+            }
+            final WorldClock jumped = clocks.get();
+            assertTrue("Restoring " + state, jumped.restore(state));
+            final long jumpedTime = jumped.skipWarpedTicks(worldTime, ticks);
+            assertEquals("World time after jumping [" + ticks + "] ticks from [" + worldTime + "]", tickedTime, jumpedTime);
+            assertEquals("Warped time after jumping [" + ticks + "] ticks from [" + worldTime + "]", ticked.getWarpedTime(tickedTime),
+                    jumped.getWarpedTime(jumpedTime));
+            final long rewound = jumped.skipWarpedTicks(jumpedTime, -ticks);
+            assertEquals("Warped time after rewinding [" + ticks + "] ticks", start, jumped.getWarpedTime(rewound));
+
+            for (DayPartType type : DayPartType.values()) {
+                final WorldClock skipping = clocks.get();
+                skipping.restore(state);
+                final long ticksUntil = skipping.getWarpedTicksUntil(worldTime, type);
+                final long skippedTime = skipping.skipDayParts(worldTime, skipping.getDayPartsUntil(worldTime, type));
+                assertEquals("Warped ticks until " + type + " from [" + worldTime + "]", ticksUntil,
+                        skipping.getWarpedTime(skippedTime) - start);
+                assertTrue("Jumped backwards to " + type + " from [" + worldTime + "]",
+                        ticksUntil > 0L || skipping.getDayPartElapsed(worldTime) == 0L);
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * This file is part of TimeWarp, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) InspireNXE <http://github.com/InspireNXE/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.inspirenxe.timewarp.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import org.inspirenxe.timewarp.daypart.DayPartType;
+import org.inspirenxe.timewarp.engine.WarpState;
+import org.inspirenxe.timewarp.world.WarpSchedule;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class WarpStateStorageTest {
+
+    private static final WarpState[] STATES = {
+            new WarpState(0L, 0L, null, 0L),
+            new WarpState(123_456_789L, WarpSchedule.getCycle(123_456_789L), DayPartType.NIGHT, 12_345L),
+            new WarpState(Long.MAX_VALUE, Long.MIN_VALUE, DayPartType.MORNING, -1L)
+    };
+
+    @Test
+    public void statesSurviveRoundTrip() {
+        for (WarpState state : STATES) {
+            final WarpState decoded = WarpStateStorage.decode(WarpStateStorage.encode(state));
+            assertEquals(state.toString(), state.worldTime, decoded.worldTime);
+            assertEquals(state.toString(), state.cycle, decoded.cycle);
+            assertEquals(state.toString(), state.dayPartType, decoded.dayPartType);
+            assertEquals(state.toString(), state.remainder, decoded.remainder);
+        }
+    }
+
+    @Test
+    public void rejectsFlippedBits() {
+        for (WarpState state : STATES) {
+            final byte[] bytes = WarpStateStorage.encode(state).array();
+            for (int index = 0; index < bytes.length; index++) {
+                for (int bit = 0; bit < 8; bit++) {
+                    final byte[] corrupt = bytes.clone();
+                    corrupt[index] ^= 1 << bit;
+                    assertRejected(ByteBuffer.wrap(corrupt), "bit [" + bit + "] of byte [" + index + "] flipped");
+                }
+            }
+        }
+    }
+
+    @Test
+    public void rejectsTruncatedFiles() {
+        for (WarpState state : STATES) {
+            final byte[] bytes = WarpStateStorage.encode(state).array();
+            assertRejected(ByteBuffer.wrap(bytes, 0, bytes.length - 1), "truncated");
+        }
+    }
+
+    private static void assertRejected(ByteBuffer buffer, String corruption) {
+        try {
+            WarpStateStorage.decode(buffer);
+            fail("State file with " + corruption + " was accepted");
+        } catch (IllegalArgumentException ignored) {
+        }
+    }
+}
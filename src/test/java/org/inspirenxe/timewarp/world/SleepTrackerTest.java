@@ -0,0 +1,106 @@
+/*
+ * This file is part of TimeWarp, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) InspireNXE <http://github.com/InspireNXE/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.inspirenxe.timewarp.world;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.util.UUID;
+
+public class SleepTrackerTest {
+
+    private final SleepTracker tracker = new SleepTracker();
+    private final UUID world = UUID.randomUUID();
+    private final UUID otherWorld = UUID.randomUUID();
+    private final UUID sleeper = UUID.randomUUID();
+    private final UUID spectator = UUID.randomUUID();
+    private final UUID leaver = UUID.randomUUID();
+
+    private void join(UUID worldUniqueId, UUID playerUniqueId, boolean ignored) {
+        this.tracker.addPlayer(worldUniqueId, playerUniqueId);
+        this.tracker.setIgnored(worldUniqueId, playerUniqueId, ignored);
+    }
+
+    @Test
+    public void leavingDecrementsCounts() {
+        this.join(this.world, this.sleeper, false);
+        this.join(this.world, this.leaver, false);
+        this.tracker.startSleeping(this.world, this.sleeper);
+        assertFalse(this.tracker.isThresholdMet(this.world, 100));
+
+        this.tracker.removePlayer(this.world, this.leaver);
+        // Looking up whether the leaving player is ignored after they left must not count them again
+        this.tracker.setIgnored(this.world, this.leaver, false);
+        assertEquals(1, this.tracker.getPlayers(this.world));
+        assertTrue(this.tracker.isThresholdMet(this.world, 100));
+    }
+
+    @Test
+    public void changingWorldMovesCounts() {
+        this.join(this.world, this.sleeper, false);
+        this.join(this.world, this.leaver, false);
+        this.tracker.startSleeping(this.world, this.sleeper);
+        this.tracker.startSleeping(this.world, this.leaver);
+
+        this.tracker.removePlayer(this.world, this.leaver);
+        this.join(this.otherWorld, this.leaver, false);
+        assertEquals(1, this.tracker.getPlayers(this.world));
+        assertEquals(1, this.tracker.getSleeping(this.world));
+        assertEquals(1, this.tracker.getPlayers(this.otherWorld));
+        assertEquals("Sleeping players in the world entered", 0, this.tracker.getSleeping(this.otherWorld));
+    }
+
+    @Test
+    public void ignoredPlayersAreNotCounted() {
+        this.join(this.world, this.sleeper, false);
+        this.join(this.world, this.spectator, true);
+        this.tracker.startSleeping(this.world, this.sleeper);
+        assertEquals(1, this.tracker.getPlayers(this.world));
+        assertTrue(this.tracker.isThresholdMet(this.world, 100));
+
+        this.tracker.setIgnored(this.world, this.spectator, false);
+        assertEquals(2, this.tracker.getPlayers(this.world));
+        assertFalse(this.tracker.isThresholdMet(this.world, 100));
+
+        // An ignored player leaving may not leave anything behind
+        this.tracker.setIgnored(this.world, this.spectator, true);
+        this.tracker.removePlayer(this.world, this.spectator);
+        assertEquals(1, this.tracker.getPlayers(this.world));
+        assertEquals(1, this.tracker.getSleeping(this.world));
+    }
+
+    @Test
+    public void ignoringPlayersNotInWorldDoesNothing() {
+        this.tracker.setIgnored(this.world, this.spectator, true);
+        this.tracker.setIgnored(this.world, this.leaver, false);
+        assertEquals(0, this.tracker.getPlayers(this.world));
+        this.join(this.world, this.sleeper, false);
+        this.tracker.startSleeping(this.world, this.sleeper);
+        assertTrue(this.tracker.isThresholdMet(this.world, 100));
+    }
+}
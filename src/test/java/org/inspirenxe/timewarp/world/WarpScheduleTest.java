@@ -0,0 +1,100 @@
+/*
+ * This file is part of TimeWarp, licensed under the MIT License (MIT).
+ *
+ * Copyright (c) InspireNXE <http://github.com/InspireNXE/>
+ * Copyright (c) contributors
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.inspirenxe.timewarp.world;
+
+import static org.junit.Assert.assertEquals;
+
+import ninja.leaping.configurate.ConfigurationNode;
+import ninja.leaping.configurate.SimpleConfigurationNode;
+import org.inspirenxe.timewarp.config.CalendarSettings;
+import org.inspirenxe.timewarp.daypart.DayPartType;
+import org.junit.Test;
+import org.slf4j.helpers.NOPLogger;
+
+public class WarpScheduleTest {
+
+    /**
+     * A stretched timeline, every daypart a different multiple of its vanilla length.
+     */
+    public static final long[] STRETCHED = {3600, 31800, 1400, 5400, 25200};
+    /**
+     * A timeline skipping dusk and evening.
+     */
+    public static final long[] SKIPPED = {1800, 21200, 0, 0, 16800};
+
+    /**
+     * Creates a calendar with a year of 12 days and keyframes on days 2, 6 and 9, the last one skipping dusk.
+     * @return The {@link WorldCalendar}.
+     */
+    public static WorldCalendar createCalendar() {
+        final ConfigurationNode node = SimpleConfigurationNode.root();
+        node.getNode("year-length").setValue(12);
+        final long[][] keyframes = {
+                {1800, 10600, 1400, 1800, 8400},
+                {5400, 21200, 2800, 3600, 42000},
+                {3600, 15900, 0, 1800, 16800}
+        };
+        final int[] days = {2, 6, 9};
+        for (int keyframe = 0; keyframe < keyframes.length; keyframe++) {
+            for (DayPartType type : DayPartType.values()) {
+                node.getNode("keyframes", String.valueOf(days[keyframe]), "dayparts", type.name.toLowerCase())
+                        .setValue(keyframes[keyframe][type.ordinal()]);
+            }
+        }
+        return new WorldCalendar(CalendarSettings.of("seasons", node, NOPLogger.NOP_LOGGER));
+    }
+
+    @Test
+    public void timelinePrefixSumsMatchLengths() {
+        checkPrefixSums(new WorldTimeline(STRETCHED), 10L);
+    }
+
+    @Test
+    public void calendarPrefixSumsMatchLengths() {
+        final WorldCalendar calendar = createCalendar();
+        // Across year boundaries and before cycle 0
+        checkPrefixSums(calendar, calendar.getYearLength() * 3L);
+    }
+
+    private static void checkPrefixSums(WarpSchedule schedule, long cycles) {
+        for (long cycle = -cycles; cycle < cycles; cycle++) {
+            long dayLength = 0;
+            long dayParts = 0;
+            for (DayPartType type : DayPartType.values()) {
+                final long length = schedule.getLength(cycle, type);
+                dayLength += length;
+                dayParts += length == 0 ? 0 : 1;
+            }
+            final long start = schedule.getWarpedStart(cycle);
+            assertEquals("Warped start of cycle [" + cycle + "]", dayLength, schedule.getWarpedStart(cycle + 1) - start);
+            assertEquals("Cycle at the warped start of cycle [" + cycle + "]", cycle, schedule.getCycleAt(start));
+            assertEquals("Cycle at the warped end of cycle [" + cycle + "]", cycle, schedule.getCycleAt(start + dayLength - 1));
+            assertEquals("Daypart start of cycle [" + cycle + "]", dayParts,
+                    schedule.getDayPartStart(cycle + 1) - schedule.getDayPartStart(cycle));
+            assertEquals("Cycle at the daypart start of cycle [" + cycle + "]", cycle,
+                    schedule.getCycleAtDayPart(schedule.getDayPartStart(cycle)));
+        }
+    }
+}